@@ -0,0 +1,153 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.HashMap;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.MutationFactory;
+import jmetal.problems.DTLZ.DTLZ2;
+import jmetal.util.JMException;
+
+/**
+ * Common set up of the WeiPS benchmarks. The problem is DTLZ2 (cheap to 
+ * evaluate), so the benchmarks measure the algorithm and not the problem.
+ * @author luiz
+ */
+final class BenchmarkUtils {
+    
+    // Largest lattice used by Grips and StratGrips
+    private static final int MAX_LATTICE_SIZE = 100000;
+    
+    private BenchmarkUtils() {
+    }
+    
+    /**
+     * @param numberOfObjectives Number of objectives
+     * @return DTLZ2 with k = 10 distance variables
+     */
+    static Problem createProblem(int numberOfObjectives) throws ClassNotFoundException {
+        return new DTLZ2("Real", numberOfObjectives + 9, numberOfObjectives);
+    }
+    
+    /**
+     * @param variant Name of the WeiPS variant (Rawps, Unpas, Grips or StratGrips)
+     * @param problem Problem to solve
+     * @return The WeiPS variant
+     */
+    static Weips createVariant(String variant, Problem problem) {
+        switch(variant){
+            case "Rawps":
+                return new Rawps(problem);
+            case "Unpas":
+                return new Unpas(problem);
+            case "Grips":
+                return new Grips(problem);
+            case "StratGrips":
+                return new StratGrips(problem);
+            default:
+                throw new IllegalArgumentException("Unknown WeiPS variant: " + variant);
+        }
+    }
+    
+    /**
+     * Number of weights of a variant. For Unpas it is the population size. 
+     * For the lattice methods it is the largest number of divisions per 
+     * objective whose lattice has at most max(populationSize, M) points (and 
+     * never more than <code>MAX_LATTICE_SIZE</code>), so the weight matrix 
+     * fits in memory for any number of objectives.
+     * @param variant Name of the WeiPS variant
+     * @param numberOfObjectives Number of objectives
+     * @param populationSize Population size
+     * @return The value of the numWeights parameter
+     */
+    static int numberOfWeights(String variant, int numberOfObjectives, int populationSize) {
+        if(!variant.equals("Grips") && !variant.equals("StratGrips")){
+            return populationSize;
+        }
+        long target = Math.min(MAX_LATTICE_SIZE, Math.max(populationSize, numberOfObjectives));
+        int divisions = 2;
+        while(latticeSize(divisions + 1, numberOfObjectives) <= target){
+            divisions++;
+        }
+        return divisions;
+    }
+    
+    /**
+     * @return Number of points of the simplex lattice: C(n + M - 2, M - 1)
+     */
+    private static long latticeSize(int numWeights, int numberOfObjectives) {
+        long size = 1;
+        for(int i = 1; i < numberOfObjectives; i++){
+            size = size * (numWeights - 2 + i) / i;
+        }
+        return size;
+    }
+    
+    /**
+     * Sets the parameters and operators used in the study (Weips_Settings)
+     * @param algorithm Algorithm to configure
+     * @param variant Name of the WeiPS variant
+     * @param populationSize Population size
+     * @param maxEvaluations Maximum number of evaluations
+     * @throws JMException 
+     */
+    static void configure(Weips algorithm, String variant, int populationSize, 
+                          int maxEvaluations) throws JMException {
+        Problem problem = algorithm.getProblem();
+        algorithm.setInputParameter(Weips.p_populationSize, populationSize);
+        algorithm.setInputParameter(Weips.p_maxEvaluations, maxEvaluations);
+        algorithm.setInputParameter(Weips.p_numWeights, 
+                numberOfWeights(variant, problem.getNumberOfObjectives(), populationSize));
+        algorithm.setInputParameter(Weips.p_tournamentSize, 3);
+        
+        HashMap parameters = new HashMap();
+        parameters.put("probability", 0.9);
+        parameters.put("distributionIndex", 20.0);
+        algorithm.addOperator(Weips.p_crossover, CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters));
+        
+        parameters = new HashMap();
+        parameters.put("probability", 1.0 / problem.getNumberOfVariables());
+        parameters.put("distributionIndex", 20.0);
+        algorithm.addOperator(Weips.p_mutation, MutationFactory.getMutationOperator("PolynomialMutation", parameters));
+    }
+    
+    /**
+     * @param problem Problem to solve
+     * @param size Number of solutions
+     * @return A set of random evaluated solutions
+     */
+    static SolutionSet randomSolutions(Problem problem, int size) throws JMException, ClassNotFoundException {
+        SolutionSet solutionSet = new SolutionSet(size);
+        for(int i = 0; i < size; i++){
+            Solution solution = new Solution(problem);
+            problem.evaluate(solution);
+            problem.evaluateConstraints(solution);
+            solutionSet.add(solution);
+        }
+        return solutionSet;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.concurrent.TimeUnit;
+import jmetal.util.JMException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One full generation of WeiPS on DTLZ2 (selection, variation, evaluation 
+ * and replacement), with and without the score matrix. The population keeps
+ * evolving between invocations, as in a real run.
+ * @author luiz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenerationBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int populationSize;
+    
+    @Param({"2", "3", "5", "10"})
+    public int numberOfObjectives;
+    
+    @Param({"Rawps", "Unpas", "Grips", "StratGrips"})
+    public String variant;
+    
+    @Param({"false", "true"})
+    public boolean scoreMatrix;
+    
+    private Weips algorithm;
+    
+    @Setup
+    public void setUp() throws Exception {
+        algorithm = BenchmarkUtils.createVariant(variant, BenchmarkUtils.createProblem(numberOfObjectives));
+        BenchmarkUtils.configure(algorithm, variant, populationSize, Integer.MAX_VALUE);
+        algorithm.setInputParameter(Weips.p_scoreMatrix, scoreMatrix);
+        algorithm.build();
+        algorithm.initialize();
+    }
+    
+    @Benchmark
+    public void nextGeneration() throws JMException {
+        algorithm.nextGeneration();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        algorithm.evaluator.shutdown();
+    }
+}
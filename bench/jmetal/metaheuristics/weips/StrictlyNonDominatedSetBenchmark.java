@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import jmetal.core.SolutionSet;
+import jmetal.util.StrictlyNonDominatedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filters the union of a generation (2 * populationSize random DTLZ2 
+ * solutions) with <code>StrictlyNonDominatedSet</code>. A fraction of the 
+ * solutions is made infeasible, with random constraint violations.
+ * @author luiz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StrictlyNonDominatedSetBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int populationSize;
+    
+    @Param({"2", "3", "5", "10"})
+    public int numberOfObjectives;
+    
+    @Param({"0", "0.9"})
+    public double infeasibleFraction;
+    
+    private SolutionSet union;
+    
+    @Setup
+    public void setUp() throws Exception {
+        union = BenchmarkUtils.randomSolutions(BenchmarkUtils.createProblem(numberOfObjectives), 
+                                               2 * populationSize);
+        Random random = new Random(1);
+        for (int p = 0; p < union.size(); p++) {
+            if(random.nextDouble() < infeasibleFraction){
+                union.get(p).setOverallConstraintViolation(-1 - random.nextInt(10));
+            }
+        }
+    }
+    
+    @Benchmark
+    public StrictlyNonDominatedSet filterUnion() {
+        return new StrictlyNonDominatedSet(union);
+    }
+}
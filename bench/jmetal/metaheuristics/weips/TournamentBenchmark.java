@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.operators.selection.Tournament;
+import jmetal.util.JMException;
+import jmetal.util.comparators.WeipsComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Replacement stage of a generation: selects populationSize solutions out of
+ * 2 * populationSize without replacement (tournament size 3), with the 
+ * legacy <code>noReplacementTournament</code> and with 
+ * <code>selectWithoutReplacement</code>.
+ * @author luiz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TournamentBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int populationSize;
+    
+    @Param({"2", "3", "5", "10"})
+    public int numberOfObjectives;
+    
+    @Param({"Rawps", "Unpas", "Grips", "StratGrips"})
+    public String variant;
+    
+    private SolutionSet union;
+    
+    private Tournament tournament;
+    
+    @Setup
+    public void setUp() throws Exception {
+        Problem problem = BenchmarkUtils.createProblem(numberOfObjectives);
+        Weips algorithm = BenchmarkUtils.createVariant(variant, problem);
+        int numWeights = BenchmarkUtils.numberOfWeights(variant, numberOfObjectives, populationSize);
+        union = BenchmarkUtils.randomSolutions(problem, 2 * populationSize);
+        
+        HashMap<String, Object> parameters = new HashMap<>();
+        parameters.put(Tournament.p_tournamentSize, 3);
+        parameters.put(Tournament.p_comparator, 
+                       new WeipsComparator(algorithm.getWeightMatrix(numberOfObjectives, numWeights)));
+        tournament = new Tournament(parameters);
+    }
+    
+    @Benchmark
+    public SolutionSet noReplacementTournament() {
+        List<Solution> candidates = new ArrayList<>(union.size());
+        for(int i = 0; i < union.size(); i++){
+            candidates.add(union.get(i));
+        }
+        SolutionSet selected = new SolutionSet(populationSize);
+        tournament.resetPermutation(candidates.size());
+        for(int k = 0; k < populationSize; k++){
+            selected.add(tournament.noReplacementTournament(candidates));
+        }
+        return selected;
+    }
+    
+    @Benchmark
+    public SolutionSet selectWithoutReplacement() throws JMException {
+        List<Solution> candidates = new ArrayList<>(union.size());
+        for(int i = 0; i < union.size(); i++){
+            candidates.add(union.get(i));
+        }
+        SolutionSet selected = new SolutionSet(populationSize);
+        tournament.selectWithoutReplacement(candidates, populationSize, selected);
+        return selected;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.concurrent.TimeUnit;
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+import jmetal.util.comparators.WeipsComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares consecutive pairs of a population with the 
+ * <code>WeipsComparator</code> of each variant, as solutions and by their 
+ * indexes in the bound population (score matrix). One operation is a pass over the whole population.
+ * @author luiz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WeipsComparatorBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int populationSize;
+    
+    @Param({"2", "3", "5", "10"})
+    public int numberOfObjectives;
+    
+    @Param({"Rawps", "Unpas", "Grips", "StratGrips"})
+    public String variant;
+    
+    private SolutionSet population;
+    
+    private WeipsComparator comparator;
+    
+    private WeipsComparator scoreComparator;
+    
+    @Setup
+    public void setUp() throws Exception {
+        Problem problem = BenchmarkUtils.createProblem(numberOfObjectives);
+        Weips algorithm = BenchmarkUtils.createVariant(variant, problem);
+        int numWeights = BenchmarkUtils.numberOfWeights(variant, numberOfObjectives, populationSize);
+        population = BenchmarkUtils.randomSolutions(problem, populationSize);
+        comparator = new WeipsComparator(algorithm.getWeightMatrix(numberOfObjectives, numWeights));
+        scoreComparator = new WeipsComparator(algorithm.getWeightMatrix(numberOfObjectives, numWeights));
+        scoreComparator.bindSolutions(population);
+    }
+    
+    @Benchmark
+    public int compare() {
+        return comparePairs(comparator);
+    }
+    
+    @Benchmark
+    public int compareWithScoreMatrix() {
+        int sum = 0;
+        for(int i = 1; i < population.size(); i++){
+            sum += scoreComparator.compare(i - 1, i);
+        }
+        return sum;
+    }
+    
+    private int comparePairs(WeipsComparator weipsComparator) {
+        int sum = 0;
+        for(int i = 1; i < population.size(); i++){
+            sum += weipsComparator.compare(population.get(i - 1), population.get(i));
+        }
+        return sum;
+    }
+}
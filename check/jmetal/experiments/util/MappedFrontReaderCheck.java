@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.experiments.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that <code>MappedFrontReader</code> reads exactly the values 
+ * returned by <code>Double.parseDouble</code>. The file has random doubles, 
+ * random decimal strings (up to 25 digits, exponents from -360 to 339), 
+ * decimals close to the midpoint of two doubles (the hard cases of the 
+ * rounding), special values and known hard cases, separated by spaces, 
+ * tabs and line breaks. Exits with status 1 if any value differs.
+ * @author luiz
+ */
+public class MappedFrontReaderCheck {
+    
+    private static final String[] SPECIAL_VALUES = {
+        "NaN", "-Infinity", "Infinity", "-0.0", "0", "+3", "1e5", "1E-5", 
+        ".5", "5.", "1.5f", "2d", "0x1p3", "00012.50", "1e+22", 
+        "123456789012345678901234567890", "4.9E-324", 
+        "1.7976931348623157E308", "9007199254740993", "0.1e-400", "1e23", 
+        "7.3177701707893310e+15", "7.2057594037927933e+16", 
+        "2.2250738585072011e-308", "2.2250738585072014e-308", 
+        "9007199254740993e0", 
+        "1.00000000000000011102230246251565404236316680908203125", 
+        "4.4501477170144023e-308", "1e-342", "1e308", 
+        "1.7976931348623158e308", "1.7976931348623159e308", 
+        "9999999999999999999e-30", "18446744073709551615", 
+        "1844674407370955161.5"
+    };
+    
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(3);
+        List<String> values = new ArrayList<>();
+        for(int i = 0; i < 400000; i++){
+            values.add(Double.toString(randomDouble(random, i)));
+        }
+        values.addAll(Arrays.asList(SPECIAL_VALUES));
+        for(int i = 0; i < 600000; i++){
+            values.add(randomDecimal(random, i % 2 == 0 ? 19 : 25));
+        }
+        for(int i = 0; i < 200000; i++){
+            double value = Double.longBitsToDouble(random.nextLong() & Long.MAX_VALUE);
+            if(!Double.isNaN(value) && !Double.isInfinite(value)){
+                values.add(midpoint(value, 1 + random.nextInt(19)));
+            }
+        }
+        
+        File file = File.createTempFile("front", ".txt");
+        file.deleteOnExit();
+        try(Writer writer = new BufferedWriter(new FileWriter(file))){
+            for(int i = 0; i < values.size(); i++){
+                writer.write(values.get(i));
+                writer.write(i % 3 == 2 ? " \n" : (i % 7 == 0 ? "\t" : " "));
+            }
+            writer.write("\n\n");
+        }
+        
+        double[][] front = new MappedFrontReader().readFront(file);
+        int k = 0;
+        int failures = 0;
+        for(double[] point : front){
+            for(double value : point){
+                double expected = Double.parseDouble(values.get(k));
+                if(Double.doubleToRawLongBits(expected) != Double.doubleToRawLongBits(value)){
+                    failures++;
+                    System.out.println(values.get(k) + ": expected " + expected + ", got " + value);
+                }
+                k++;
+            }
+        }
+        if(k != values.size()){
+            failures++;
+            System.out.println("Read " + k + " of " + values.size() + " values");
+        }
+        System.out.println(values.size() + " values, " + failures + " failures");
+        if(failures > 0){
+            System.exit(1);
+        }
+    }
+    
+    private static double randomDouble(Random random, int i) {
+        switch(i % 8){
+            case 0:
+                return random.nextDouble();
+            case 1:
+                return random.nextGaussian() * 1e5;
+            case 2:
+                return Double.longBitsToDouble(random.nextLong());
+            case 3:
+                return random.nextInt(1000) / 8.0;
+            case 4:
+                return random.nextDouble() * 1e-30;
+            case 5:
+                return Math.round(random.nextDouble() * 1e6) / 1e6;
+            default:
+                return random.nextDouble() * 10 - 5;
+        }
+    }
+    
+    private static String randomDecimal(Random random, int maximumDigits) {
+        StringBuilder decimal = new StringBuilder();
+        if(random.nextBoolean()){
+            decimal.append('-');
+        }
+        int digits = 1 + random.nextInt(maximumDigits);
+        int point = random.nextInt(digits + 1);
+        for(int j = 0; j < digits; j++){
+            if(j == point){
+                decimal.append('.');
+            }
+            decimal.append((char) ('0' + random.nextInt(10)));
+        }
+        if(random.nextInt(3) > 0){
+            decimal.append(random.nextBoolean() ? 'E' : 'e').append(random.nextInt(700) - 360);
+        }
+        return decimal.toString();
+    }
+    
+    // Midpoint of value and the next double, rounded to the given number of 
+    // significant digits
+    private static String midpoint(double value, int digits) {
+        BigDecimal low = new BigDecimal(value);
+        BigDecimal high = new BigDecimal(Math.nextUp(value));
+        return low.add(high).divide(BigDecimal.valueOf(2)).round(new MathContext(digits)).toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.qualityIndicator;
+
+import java.util.Random;
+
+/**
+ * Checks <code>FastHypervolume</code> against <code>Hypervolume</code> on 
+ * random fronts with 2 to 6 objectives: fronts on the unit sphere, fronts 
+ * on a grid (many ties) and fronts with values outside the bounds of the 
+ * true front, some of them with duplicated points. Exits with status 1 if 
+ * the relative difference of any front is larger than 1e-9.
+ * @author luiz
+ */
+public class FastHypervolumeCheck {
+    
+    private static final int NUMBER_OF_FRONTS = 3000;
+    
+    private static final double TOLERANCE = 1e-9;
+    
+    public static void main(String[] args) {
+        Random random = new Random(5);
+        int failures = 0;
+        double largestError = 0;
+        for(int t = 0; t < NUMBER_OF_FRONTS; t++){
+            int numberOfObjectives = 2 + t % 5;
+            int size = 1 + random.nextInt(t % 10 == 0 ? 200 : 30);
+            double[][] trueFront = new double[10][numberOfObjectives];
+            for(double[] point : trueFront){
+                for(int j = 0; j < numberOfObjectives; j++){
+                    point[j] = random.nextDouble();
+                }
+            }
+            double[][] front = new double[size][];
+            int gridSize = 1 + random.nextInt(5);
+            for(int i = 0; i < size; i++){
+                if(random.nextBoolean()){
+                    front[i] = spherePoint(random, numberOfObjectives);
+                }
+                else{
+                    front[i] = new double[numberOfObjectives];
+                    for(int j = 0; j < numberOfObjectives; j++){
+                        front[i][j] = t % 3 == 0 ? 
+                                random.nextInt(gridSize) * 0.3 : 
+                                random.nextDouble() * 1.3 - 0.1;
+                    }
+                }
+            }
+            if(size > 3 && t % 4 == 0){
+                front[size - 1] = front[0].clone();
+            }
+            // Hypervolume reorders the points of the front
+            double expected = new Hypervolume().hypervolume(copy(front), trueFront, numberOfObjectives);
+            double actual = new FastHypervolume().hypervolume(copy(front), trueFront, numberOfObjectives);
+            double error = Math.abs(expected - actual) / Math.max(1e-12, Math.abs(expected));
+            largestError = Math.max(largestError, error);
+            if(error > TOLERANCE){
+                failures++;
+                System.out.println("M = " + numberOfObjectives + ", N = " + size + 
+                        ": expected " + expected + ", got " + actual);
+            }
+        }
+        System.out.println(NUMBER_OF_FRONTS + " fronts, " + failures + 
+                " failures, largest relative difference " + largestError);
+        if(failures > 0){
+            System.exit(1);
+        }
+    }
+    
+    private static double[] spherePoint(Random random, int numberOfObjectives) {
+        double[] point = new double[numberOfObjectives];
+        double norm = 0;
+        for(int j = 0; j < numberOfObjectives; j++){
+            point[j] = random.nextDouble();
+            norm += point[j] * point[j];
+        }
+        norm = Math.sqrt(norm);
+        for(int j = 0; j < numberOfObjectives; j++){
+            point[j] /= norm;
+        }
+        return point;
+    }
+    
+    private static double[][] copy(double[][] front) {
+        double[][] copy = new double[front.length][];
+        for(int i = 0; i < front.length; i++){
+            copy[i] = front[i].clone();
+        }
+        return copy;
+    }
+}
@@ -24,8 +24,10 @@ package jmetal.experiments.settings;
 import jmetal.core.Algorithm;
 import jmetal.experiments.Settings;
 import jmetal.metaheuristics.nsgaII.NSGAII;
+import jmetal.operators.crossover.BatchSBXCrossover;
 import jmetal.operators.crossover.Crossover;
 import jmetal.operators.crossover.CrossoverFactory;
+import jmetal.operators.mutation.BatchPolynomialMutation;
 import jmetal.operators.mutation.Mutation;
 import jmetal.operators.mutation.MutationFactory;
 import jmetal.operators.selection.Selection;
@@ -52,6 +54,18 @@ public class Weips_Settings extends Settings {
     public int maxEvaluations_                 ;
     public int tournamentSize_                 ;
     public int numWeights_                     ;
+    public int numberOfThreads_                ;
+    public boolean useScoreMatrix_             ;
+    public boolean useSteadyState_             ;
+    public boolean useFlatPopulation_          ;
+    public boolean useBatchVariation_          ; // batch operators over the flat population
+    public String weightCacheDirectory_        ;
+    public long maxTime_                       ; // 0 for no time budget
+    public int stagnationWindow_               ; // 0 for no stagnation test
+    public int evaluationCacheSize_            ; // 0 for no evaluation cache
+    public int numberOfIslands_                ;
+    public String workerCommand_               ; // null to evaluate in process
+    public boolean useBinaryOutput_            ; // FUN_name.bin instead of FUN_name
     public double mutationProbability_         ;
     public double crossoverProbability_        ;
     public double mutationDistributionIndex_   ;
@@ -85,6 +99,18 @@ public class Weips_Settings extends Settings {
         
         weipsMethod_ = weipsMethod;
         tournamentSize_ = 3;
+        numberOfThreads_ = 1;
+        useScoreMatrix_ = false;
+        useSteadyState_ = false;
+        useFlatPopulation_ = false;
+        useBatchVariation_ = false;
+        weightCacheDirectory_ = null;
+        maxTime_ = 0;
+        stagnationWindow_ = 0;
+        evaluationCacheSize_ = 0;
+        numberOfIslands_ = 1;
+        workerCommand_ = null;
+        useBinaryOutput_ = false;
         if(problem_.getNumberOfObjectives() == 3 &&
                 (weipsMethod == eWeipsMethod.GRIPS || weipsMethod == eWeipsMethod.STRATGRIPS))
             // This value ensures the number of weights is 300
@@ -105,7 +131,7 @@ public class Weips_Settings extends Settings {
         Crossover  crossover ;
         Mutation   mutation  ;
 
-        HashMap  parameters ; // Operator parameters
+        HashMap<String, Object>  parameters ; // Operator parameters
         
         switch(weipsMethod_){
             case GRIPS:
@@ -130,18 +156,43 @@ public class Weips_Settings extends Settings {
         algorithm.setInputParameter("maxEvaluations", maxEvaluations_);
         algorithm.setInputParameter(Weips.p_numWeights, numWeights_);
         algorithm.setInputParameter(Weips.p_tournamentSize, tournamentSize_);
+        algorithm.setInputParameter(Weips.p_numberOfThreads, numberOfThreads_);
+        algorithm.setInputParameter(Weips.p_scoreMatrix, useScoreMatrix_);
+        algorithm.setInputParameter(Weips.p_steadyState, useSteadyState_);
+        algorithm.setInputParameter(Weips.p_flatPopulation, useFlatPopulation_);
+        algorithm.setInputParameter(Weips.p_weightCacheDirectory, weightCacheDirectory_);
+        if(maxTime_ > 0){
+            algorithm.setInputParameter(Weips.p_maxTime, maxTime_);
+        }
+        if(stagnationWindow_ > 0){
+            algorithm.setInputParameter(Weips.p_stagnationWindow, stagnationWindow_);
+        }
+        algorithm.setInputParameter(Weips.p_evaluationCacheSize, evaluationCacheSize_);
+        algorithm.setInputParameter(Weips.p_numberOfIslands, numberOfIslands_);
+        algorithm.setInputParameter(Weips.p_workerCommand, workerCommand_);
+        algorithm.setInputParameter(Weips.p_binaryOutput, useBinaryOutput_);
         
 
         // Mutation and Crossover for Real codification
-        parameters = new HashMap() ;
+        parameters = new HashMap<>() ;
         parameters.put("probability", crossoverProbability_) ;
         parameters.put("distributionIndex", crossoverDistributionIndex_) ;
-        crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+        if(useBatchVariation_){
+            crossover = new BatchSBXCrossover(parameters);
+        }
+        else{
+            crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+        }
 
-        parameters = new HashMap() ;
+        parameters = new HashMap<>() ;
         parameters.put("probability", mutationProbability_) ;
         parameters.put("distributionIndex", mutationDistributionIndex_) ;
-        mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+        if(useBatchVariation_){
+            mutation = new BatchPolynomialMutation(parameters);
+        }
+        else{
+            mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+        }
 
         // Selection Operator
         parameters = null ;
@@ -163,7 +214,7 @@ public class Weips_Settings extends Settings {
         Crossover  crossover ;
         Mutation   mutation  ;
 
-        HashMap  parameters ; // Operator parameters
+        HashMap<String, Object>  parameters ; // Operator parameters
 
         switch(weipsMethod_){
             case GRIPS:
@@ -193,21 +244,59 @@ public class Weips_Settings extends Settings {
         tournamentSize_ = Integer.parseInt(configuration.getProperty(Weips.p_tournamentSize, String.valueOf(tournamentSize_)));
         algorithm.setInputParameter(Weips.p_numWeights, numWeights_);
         algorithm.setInputParameter(Weips.p_tournamentSize, tournamentSize_);
+        
+        numberOfThreads_ = Integer.parseInt(configuration.getProperty(Weips.p_numberOfThreads, String.valueOf(numberOfThreads_)));
+        algorithm.setInputParameter(Weips.p_numberOfThreads, numberOfThreads_);
+        useScoreMatrix_ = Boolean.parseBoolean(configuration.getProperty(Weips.p_scoreMatrix, String.valueOf(useScoreMatrix_)));
+        algorithm.setInputParameter(Weips.p_scoreMatrix, useScoreMatrix_);
+        useSteadyState_ = Boolean.parseBoolean(configuration.getProperty(Weips.p_steadyState, String.valueOf(useSteadyState_)));
+        algorithm.setInputParameter(Weips.p_steadyState, useSteadyState_);
+        useFlatPopulation_ = Boolean.parseBoolean(configuration.getProperty(Weips.p_flatPopulation, String.valueOf(useFlatPopulation_)));
+        algorithm.setInputParameter(Weips.p_flatPopulation, useFlatPopulation_);
+        weightCacheDirectory_ = configuration.getProperty(Weips.p_weightCacheDirectory, weightCacheDirectory_);
+        algorithm.setInputParameter(Weips.p_weightCacheDirectory, weightCacheDirectory_);
+        maxTime_ = Long.parseLong(configuration.getProperty(Weips.p_maxTime, String.valueOf(maxTime_)));
+        if(maxTime_ > 0){
+            algorithm.setInputParameter(Weips.p_maxTime, maxTime_);
+        }
+        stagnationWindow_ = Integer.parseInt(configuration.getProperty(Weips.p_stagnationWindow, String.valueOf(stagnationWindow_)));
+        if(stagnationWindow_ > 0){
+            algorithm.setInputParameter(Weips.p_stagnationWindow, stagnationWindow_);
+        }
+        evaluationCacheSize_ = Integer.parseInt(configuration.getProperty(Weips.p_evaluationCacheSize, String.valueOf(evaluationCacheSize_)));
+        algorithm.setInputParameter(Weips.p_evaluationCacheSize, evaluationCacheSize_);
+        numberOfIslands_ = Integer.parseInt(configuration.getProperty(Weips.p_numberOfIslands, String.valueOf(numberOfIslands_)));
+        algorithm.setInputParameter(Weips.p_numberOfIslands, numberOfIslands_);
+        workerCommand_ = configuration.getProperty(Weips.p_workerCommand, workerCommand_);
+        algorithm.setInputParameter(Weips.p_workerCommand, workerCommand_);
+        useBinaryOutput_ = Boolean.parseBoolean(configuration.getProperty(Weips.p_binaryOutput, String.valueOf(useBinaryOutput_)));
+        algorithm.setInputParameter(Weips.p_binaryOutput, useBinaryOutput_);
 
         // Mutation and Crossover for Real codification
+        useBatchVariation_ = Boolean.parseBoolean(configuration.getProperty("batchVariation", String.valueOf(useBatchVariation_)));
         crossoverProbability_ = Double.parseDouble(configuration.getProperty("crossoverProbability",String.valueOf(crossoverProbability_)));
         crossoverDistributionIndex_ = Double.parseDouble(configuration.getProperty("crossoverDistributionIndex",String.valueOf(crossoverDistributionIndex_)));
-        parameters = new HashMap() ;
+        parameters = new HashMap<>() ;
         parameters.put("probability", crossoverProbability_) ;
         parameters.put("distributionIndex", crossoverDistributionIndex_) ;
-        crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+        if(useBatchVariation_){
+            crossover = new BatchSBXCrossover(parameters);
+        }
+        else{
+            crossover = CrossoverFactory.getCrossoverOperator("SBXCrossover", parameters);
+        }
 
         mutationProbability_ = Double.parseDouble(configuration.getProperty("mutationProbability",String.valueOf(mutationProbability_)));
         mutationDistributionIndex_ = Double.parseDouble(configuration.getProperty("mutationDistributionIndex",String.valueOf(mutationDistributionIndex_)));
-        parameters = new HashMap() ;
+        parameters = new HashMap<>() ;
         parameters.put("probability", mutationProbability_) ;
         parameters.put("distributionIndex", mutationDistributionIndex_) ;
-        mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+        if(useBatchVariation_){
+            mutation = new BatchPolynomialMutation(parameters);
+        }
+        else{
+            mutation = MutationFactory.getMutationOperator("PolynomialMutation", parameters);
+        }
 
         // Add the operators to the algorithm
         algorithm.addOperator("crossover",crossover);
@@ -26,6 +26,8 @@ import jmetal.experiments.Experiment;
 import jmetal.experiments.Settings;
 import jmetal.experiments.settings.*;
 import jmetal.experiments.util.Friedman;
+import jmetal.experiments.util.ParallelExperimentRunner;
+import jmetal.experiments.util.ParallelIndicatorRunner;
 import jmetal.util.JMException;
 
 import java.io.IOException;
@@ -163,6 +165,21 @@ public class WeipsStudy extends Experiment {
         }
     } 
 
+    /**
+     * Generates the quality indicators of all the runs in parallel (the files
+     * are the same written by <code>Experiment</code>)
+     */
+    @Override
+    public void generateQualityIndicators() {
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        try{
+            new ParallelIndicatorRunner(this).run(numberOfThreads);
+        }
+        catch(JMException ex){
+            Logger.getLogger(WeipsStudy.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
     /**
      * Main method
      * @param args
@@ -226,10 +243,14 @@ public class WeipsStudy extends Experiment {
 
         exp.initExperiment();
 
-        // Run the experiments
-//        int numberOfThreads = Runtime.getRuntime().availableProcessors();
-        int numberOfThreads = 1;
-        exp.runExperiment(numberOfThreads) ;
+        // Run the experiments (each run on its own task). A restarted study 
+        // only runs the missing runs
+        int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        ParallelExperimentRunner runner = new ParallelExperimentRunner(exp);
+        // FUN and VAR files in the binary columnar format (converted to text
+        // by jmetal.util.ColumnarFile)
+        runner.setBinaryOutput(false);
+        runner.run(numberOfThreads) ;
 
         exp.generateQualityIndicators() ;
 
@@ -0,0 +1,361 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.experiments.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads fronts (FUN files and reference fronts) through a memory-mapped 
+ * buffer. Each non-empty line is a point, with its values separated by blanks,
+ * as read by <code>MetricsUtil.readFront</code>.
+ * 
+ * The numbers are parsed directly from the bytes of the file and the values 
+ * are exactly the ones returned by <code>Double.parseDouble</code>. Numbers 
+ * with up to 19 significant digits are converted with the Eisel-Lemire 
+ * algorithm (D. Lemire, "Number parsing at a gigabyte per second", Software: 
+ * Practice and Experience, 2021), which gives up in the rare cases it can not
+ * round correctly; these cases, and the other numbers (e.g., NaN), are given
+ * to <code>Double.parseDouble</code>.
+ * @author luiz
+ */
+public class MappedFrontReader {
+    
+    // Range of the powers of ten of the Eisel-Lemire algorithm
+    private static final int MIN_POWER_OF_TEN = -342;
+    
+    private static final int MAX_POWER_OF_TEN = 308;
+    
+    // Powers of ten represented exactly by a double
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    
+    // Largest significand represented exactly by a double
+    private static final long MAX_EXACT_SIGNIFICAND = 1L << 53;
+    
+    // Most (HIGH) and least (LOW) significant 64 bits of the 128-bit 
+    // approximations of the powers of five (normalized: the highest bit is 1)
+    private static final long[] POWERS_OF_FIVE_HIGH;
+    
+    private static final long[] POWERS_OF_FIVE_LOW;
+    
+    static {
+        int size = MAX_POWER_OF_TEN - MIN_POWER_OF_TEN + 1;
+        POWERS_OF_FIVE_HIGH = new long[size];
+        POWERS_OF_FIVE_LOW = new long[size];
+        BigInteger five = BigInteger.valueOf(5);
+        for(int power = MIN_POWER_OF_TEN; power <= MAX_POWER_OF_TEN; power++){
+            BigInteger value;
+            if(power >= 0){
+                // Truncated 5^power
+                value = five.pow(power);
+            }
+            else{
+                // 1 + floor(2^b / 5^-power), truncated
+                BigInteger powerOfFive = five.pow(-power);
+                int z = powerOfFive.bitLength();
+                int b = (power >= -27) ? z + 127 : 2 * z + 128;
+                value = BigInteger.ONE.shiftLeft(b).divide(powerOfFive).add(BigInteger.ONE);
+            }
+            value = (value.bitLength() > 128) ? value.shiftRight(value.bitLength() - 128) : 
+                                                value.shiftLeft(128 - value.bitLength());
+            POWERS_OF_FIVE_HIGH[power - MIN_POWER_OF_TEN] = value.shiftRight(64).longValue();
+            POWERS_OF_FIVE_LOW[power - MIN_POWER_OF_TEN] = value.longValue();
+        }
+    }
+    
+    // Bytes of the file being read
+    private byte[] bytes = new byte[0];
+    
+    // Values of the points read, in a single array
+    private double[] values = new double[1024];
+    
+    private int numberOfValues;
+    
+    // Index in values of the end of each point
+    private int[] pointEnds = new int[256];
+    
+    private int numberOfPoints;
+    
+    /**
+     * Reads a front. A reader can be used for several files, but not by 
+     * several threads at the same time
+     * @param file File with a point per line
+     * @return The points of the front
+     * @throws IOException If the file could not be read
+     */
+    public double[][] readFront(File file) throws IOException {
+        int size;
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            FileChannel channel = randomAccessFile.getChannel()){
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            size = (int) channel.size();
+            if(bytes.length < size){
+                bytes = new byte[Math.max(size, 2 * bytes.length)];
+            }
+            // A single bulk copy from the mapped pages
+            channel.map(FileChannel.MapMode.READ_ONLY, 0, size).get(bytes, 0, size);
+        }
+        
+        numberOfValues = 0;
+        numberOfPoints = 0;
+        parse(size);
+        
+        double[][] front = new double[numberOfPoints][];
+        int start = 0;
+        for(int i = 0; i < numberOfPoints; i++){
+            front[i] = Arrays.copyOfRange(values, start, pointEnds[i]);
+            start = pointEnds[i];
+        }
+        return front;
+    }
+    
+    /**
+     * Splits the bytes in lines and numbers
+     */
+    private void parse(int size) throws IOException {
+        int pointStart = 0;
+        int position = 0;
+        while(position < size){
+            byte c = bytes[position];
+            if(c == '\n'){
+                endPoint(pointStart);
+                pointStart = numberOfValues;
+                position++;
+            }
+            else if(isBlank(c)){
+                position++;
+            }
+            else{
+                int end = position + 1;
+                while(end < size && !isBlank(bytes[end]) && bytes[end] != '\n'){
+                    end++;
+                }
+                addValue(parseDouble(bytes, position, end));
+                position = end;
+            }
+        }
+        endPoint(pointStart);
+    }
+    
+    private static boolean isBlank(byte c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\f';
+    }
+    
+    private void addValue(double value) {
+        if(numberOfValues == values.length){
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+        values[numberOfValues++] = value;
+    }
+    
+    /**
+     * Ends the current line (empty lines are ignored)
+     */
+    private void endPoint(int pointStart) {
+        if(numberOfValues > pointStart){
+            if(numberOfPoints == pointEnds.length){
+                pointEnds = Arrays.copyOf(pointEnds, 2 * pointEnds.length);
+            }
+            pointEnds[numberOfPoints++] = numberOfValues;
+        }
+    }
+    
+    /**
+     * Parses the number in the bytes [start, end)
+     * @return The same value returned by <code>Double.parseDouble</code>
+     * @throws IOException If the bytes are not a number
+     */
+    static double parseDouble(byte[] bytes, int start, int end) throws IOException {
+        int position = start;
+        boolean negative = false;
+        byte c = bytes[position];
+        if(c == '-' || c == '+'){
+            negative = (c == '-');
+            position++;
+        }
+        
+        // Up to 19 significant digits (read as an unsigned long)
+        long significand = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        for(; position < end; position++){
+            c = bytes[position];
+            if(c >= '0' && c <= '9'){
+                digits++;
+                if(significand != 0 || c != '0'){
+                    if(++significantDigits > 19){
+                        return parseSlowly(bytes, start, end);
+                    }
+                    significand = 10 * significand + (c - '0');
+                }
+                if(point){
+                    exponent--;
+                }
+            }
+            else if(c == '.' && !point){
+                point = true;
+            }
+            else{
+                break;
+            }
+        }
+        if(digits == 0){
+            // NaN, Infinity or an invalid number
+            return parseSlowly(bytes, start, end);
+        }
+        
+        if(position < end){
+            if(c != 'e' && c != 'E' || ++position == end){
+                return parseSlowly(bytes, start, end);
+            }
+            boolean negativeExponent = false;
+            c = bytes[position];
+            if(c == '-' || c == '+'){
+                negativeExponent = (c == '-');
+                position++;
+            }
+            int explicitExponent = 0;
+            int exponentStart = position;
+            for(; position < end; position++){
+                c = bytes[position];
+                if(c < '0' || c > '9' || explicitExponent > 9999){
+                    return parseSlowly(bytes, start, end);
+                }
+                explicitExponent = 10 * explicitExponent + (c - '0');
+            }
+            if(position == exponentStart){
+                return parseSlowly(bytes, start, end);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        
+        double value;
+        if(significand == 0){
+            value = 0.0;
+        }
+        else if(significand > 0 && significand <= MAX_EXACT_SIGNIFICAND && 
+                exponent >= -22 && exponent <= 22){
+            // Both operands are exact, so the result is correctly rounded
+            value = exponent >= 0 ? significand * EXACT_POWERS_OF_TEN[exponent] : 
+                                    significand / EXACT_POWERS_OF_TEN[-exponent];
+        }
+        else if(exponent >= MIN_POWER_OF_TEN && exponent <= MAX_POWER_OF_TEN){
+            value = eiselLemire(significand, exponent);
+            if(Double.isNaN(value)){
+                return parseSlowly(bytes, start, end);
+            }
+        }
+        else{
+            return parseSlowly(bytes, start, end);
+        }
+        return negative ? -value : value;
+    }
+    
+    /**
+     * Eisel-Lemire conversion of significand * 10^power
+     * @param significand Non-zero unsigned significand
+     * @return The correctly rounded (positive) double or NaN if the result 
+     * could not be determined (or is subnormal)
+     */
+    private static double eiselLemire(long significand, int power) {
+        long factorHigh = POWERS_OF_FIVE_HIGH[power - MIN_POWER_OF_TEN];
+        long exponent = (((152170L + 65536L) * power) >> 16) + 1023 + 64;
+        int leadingZeros = Long.numberOfLeadingZeros(significand);
+        long shiftedSignificand = significand << leadingZeros;
+        
+        long upper = multiplyHighUnsigned(shiftedSignificand, factorHigh);
+        long lower = shiftedSignificand * factorHigh;
+        if((upper & 0x1FF) == 0x1FF && lessUnsigned(lower + shiftedSignificand, lower)){
+            // The 64 bits of the power are not enough: use all the 128 bits
+            long factorLow = POWERS_OF_FIVE_LOW[power - MIN_POWER_OF_TEN];
+            long productLow = shiftedSignificand * factorLow;
+            long productMiddle = lower + multiplyHighUnsigned(shiftedSignificand, factorLow);
+            if(lessUnsigned(productMiddle, lower)){
+                upper++;
+            }
+            if(productMiddle + 1 == 0 && (upper & 0x1FF) == 0x1FF && 
+               lessUnsigned(productLow + shiftedSignificand, productLow)){
+                return Double.NaN;
+            }
+        }
+        
+        long upperBit = upper >>> 63;
+        long mantissa = upper >>> (upperBit + 9);
+        leadingZeros += (int) (1 ^ upperBit);
+        if((upper & 0x1FF) == 0x1FF || (upper & 0x1FF) == 0 && (mantissa & 3) == 1){
+            // Possibly halfway between two doubles
+            return Double.NaN;
+        }
+        mantissa = (mantissa + 1) >>> 1;
+        if(mantissa >= (1L << 53)){
+            // Rounded up to the next power of two
+            mantissa = 1L << 52;
+            leadingZeros--;
+        }
+        mantissa &= ~(1L << 52);
+        long realExponent = exponent - leadingZeros;
+        if(realExponent < 1 || realExponent > 2046){
+            return Double.NaN;
+        }
+        return Double.longBitsToDouble(mantissa | realExponent << 52);
+    }
+    
+    private static boolean lessUnsigned(long a, long b) {
+        return (a ^ Long.MIN_VALUE) < (b ^ Long.MIN_VALUE);
+    }
+    
+    /**
+     * @return The most significant 64 bits of the unsigned product a * b
+     */
+    private static long multiplyHighUnsigned(long a, long b) {
+        long a0 = a & 0xFFFFFFFFL, a1 = a >>> 32;
+        long b0 = b & 0xFFFFFFFFL, b1 = b >>> 32;
+        long low = a0 * b0;
+        long middle1 = a1 * b0 + (low >>> 32);
+        long middle2 = a0 * b1 + (middle1 & 0xFFFFFFFFL);
+        return a1 * b1 + (middle1 >>> 32) + (middle2 >>> 32);
+    }
+    
+    private static double parseSlowly(byte[] bytes, int start, int end) throws IOException {
+        String number = new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+        try{
+            return Double.parseDouble(number);
+        }
+        catch(NumberFormatException e){
+            throw new IOException("Invalid number: " + number, e);
+        }
+    }
+}
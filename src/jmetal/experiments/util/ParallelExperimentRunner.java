@@ -0,0 +1,317 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.experiments.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jmetal.core.Algorithm;
+import jmetal.core.SolutionSet;
+import jmetal.experiments.Experiment;
+import jmetal.metaheuristics.weips.Weips;
+import jmetal.util.ColumnarFile;
+import jmetal.util.JMException;
+import jmetal.util.SplitMixRandomGenerator;
+
+/**
+ * Runs the independent runs of an experiment on a work-stealing pool. Each 
+ * (algorithm, problem, run) cell is a task, so all the threads are busy until
+ * the last cells. The results are written in the same directories and files 
+ * as <code>Experiment.runExperiment</code> 
+ * (experimentBaseDirectory/data/algorithm/problem/FUN.run, VAR.run and TIME).
+ * 
+ * The files of a run are written to temporary files and moved to their final
+ * names, the front (FUN.run) being the last one. A cell is finished when its 
+ * front exists, so a study interrupted at any point can be restarted with the
+ * same settings: only the missing cells are run.
+ * 
+ * With binary output, the fronts and sets are written in the binary columnar 
+ * format of <code>ColumnarFile</code> (FUN.run.bin and VAR.run.bin).
+ * 
+ * The WeiPS runs without a seed receive one derived from the seed of the 
+ * experiment, the names of the algorithm and the problem and the run, so each
+ * cell draws from its own sequence and gives the same results when the 
+ * experiment is run again.
+ * @author luiz
+ */
+public class ParallelExperimentRunner {
+    
+    // Suffix of the files being written
+    private static final String TMP_SUFFIX = ".tmp";
+    
+    // Prefix of the files with the running time of each run
+    private static final String TIME_PREFIX = "TIME.";
+    
+    // Experiment configuring the algorithms and the output directories
+    private final Experiment experiment;
+    
+    // Fronts and sets in the binary columnar format
+    private boolean binaryOutput = false;
+    
+    // Seed of the experiment, from which the seeds of the cells are derived
+    private long seed = 0;
+    
+    /**
+     * Constructor
+     * @param experiment Experiment to run (initialized with 
+     * <code>initExperiment</code>)
+     */
+    public ParallelExperimentRunner(Experiment experiment) {
+        this.experiment = experiment;
+    }
+    
+    /**
+     * @param binaryOutput True to write the fronts and sets in the binary 
+     * columnar format (instead of text)
+     */
+    public void setBinaryOutput(boolean binaryOutput) {
+        this.binaryOutput = binaryOutput;
+    }
+    
+    /**
+     * @param seed Seed of the experiment (the seeds of the cells are derived
+     * from it)
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * Seed of a cell. It does not depend on the other cells of the experiment,
+     * so it does not change when algorithms or problems are added
+     */
+    private long getSeed(String algorithmName, String problemName, int run) {
+        long cellSeed = new SplitMixRandomGenerator(seed ^ algorithmName.hashCode()).nextLong();
+        cellSeed = new SplitMixRandomGenerator(cellSeed ^ problemName.hashCode()).nextLong();
+        return new SplitMixRandomGenerator(cellSeed ^ run).nextLong();
+    }
+    
+    /**
+     * Runs the missing cells of the experiment and writes the TIME file of 
+     * each (algorithm, problem) pair whose runs are all finished
+     * @param numberOfThreads Number of threads of the pool
+     * @return Number of cells run
+     * @throws JMException If a cell could not be run
+     */
+    public int run(int numberOfThreads) throws JMException {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try{
+            for(int problem = 0; problem < experiment.problemList_.length; problem++){
+                for(int run = 0; run < experiment.independentRuns_; run++){
+                    for(int algorithm = 0; algorithm < experiment.algorithmNameList_.length; algorithm++){
+                        if(!isFinished(algorithm, problem, run)){
+                            tasks.add(pool.submit(new Cell(algorithm, problem, run)));
+                        }
+                    }
+                }
+            }
+            int failures = 0;
+            for(ForkJoinTask<?> task : tasks){
+                try{
+                    task.join();
+                }
+                catch(RuntimeException e){
+                    Logger.getLogger(ParallelExperimentRunner.class.getName()).log(Level.SEVERE, null, e);
+                    failures++;
+                }
+            }
+            if(failures > 0){
+                throw new JMException(failures + " of " + tasks.size() + " runs failed. " +
+                                      "Run the experiment again to complete them");
+            }
+        }
+        finally{
+            pool.shutdown();
+        }
+        
+        if(Arrays.asList(experiment.indicatorList_).contains("TIME")){
+            writeTimeFiles();
+        }
+        return tasks.size();
+    }
+    
+    /**
+     * @return The directory of the results of an algorithm for a problem
+     */
+    private File getDirectory(int algorithm, int problem) {
+        return new File(experiment.experimentBaseDirectory_ + "/data/" + 
+                        experiment.algorithmNameList_[algorithm] + "/" + 
+                        experiment.problemList_[problem]);
+    }
+    
+    private String getFrontFile() {
+        return experiment.outputParetoFrontFile_ == null ? "FUN" : experiment.outputParetoFrontFile_;
+    }
+    
+    private String getSetFile() {
+        return experiment.outputParetoSetFile_ == null ? "VAR" : experiment.outputParetoSetFile_;
+    }
+    
+    /**
+     * @return True if the front of the run was already written (in any format)
+     */
+    private boolean isFinished(int algorithm, int problem, int run) {
+        File directory = getDirectory(algorithm, problem);
+        return new File(directory, getFrontFile() + "." + run).exists() || 
+               new File(directory, getFrontFile() + "." + run + ColumnarFile.EXTENSION).exists();
+    }
+    
+    private String getExtension() {
+        return binaryOutput ? ColumnarFile.EXTENSION : "";
+    }
+    
+    /**
+     * Moves a temporary file to its final name in a single step
+     */
+    private static void commit(File tmpFile, File file) throws IOException {
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Writes the running times of all runs (in the order of the runs) in the 
+     * TIME file of each (algorithm, problem) pair with all runs finished
+     */
+    private void writeTimeFiles() throws JMException {
+        for(int algorithm = 0; algorithm < experiment.algorithmNameList_.length; algorithm++){
+            for(int problem = 0; problem < experiment.problemList_.length; problem++){
+                File directory = getDirectory(algorithm, problem);
+                try{
+                    StringBuilder times = new StringBuilder();
+                    for(int run = 0; run < experiment.independentRuns_; run++){
+                        File timeFile = new File(directory, TIME_PREFIX + run);
+                        if(!isFinished(algorithm, problem, run) || !timeFile.exists()){
+                            times = null;
+                            break;
+                        }
+                        try(BufferedReader reader = new BufferedReader(new FileReader(timeFile))){
+                            times.append(reader.readLine()).append("\n");
+                        }
+                    }
+                    if(times != null){
+                        File tmpFile = new File(directory, "TIME" + TMP_SUFFIX);
+                        try(BufferedWriter writer = new BufferedWriter(new FileWriter(tmpFile))){
+                            writer.write(times.toString());
+                        }
+                        commit(tmpFile, new File(directory, "TIME"));
+                    }
+                }
+                catch(IOException e){
+                    throw new JMException("Error writing the TIME file of " + directory + ": " + e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Independent run of an algorithm for a problem
+     */
+    private class Cell implements Runnable {
+        private final int algorithm;
+        private final int problem;
+        private final int run;
+
+        Cell(int algorithm, int problem, int run) {
+            this.algorithm = algorithm;
+            this.problem = problem;
+            this.run = run;
+        }
+        
+        @Override
+        public void run() {
+            String algorithmName = experiment.algorithmNameList_[algorithm];
+            String problemName = experiment.problemList_[problem];
+            try{
+                // The algorithms are configured for each run, so no state is 
+                // shared by the threads
+                Algorithm[] algorithms = new Algorithm[experiment.algorithmNameList_.length];
+                experiment.algorithmSettings(problemName, problem, algorithms);
+                if(algorithms[algorithm] instanceof Weips && 
+                        algorithms[algorithm].getInputParameter(Weips.p_seed) == null){
+                    algorithms[algorithm].setInputParameter(Weips.p_seed, 
+                                                            getSeed(algorithmName, problemName, run));
+                }
+                if(algorithms[algorithm] instanceof Weips){
+                    // The front is written to the directory of the cell below
+                    algorithms[algorithm].setInputParameter(Weips.p_printFront, false);
+                }
+                
+                File directory = getDirectory(algorithm, problem);
+                directory.mkdirs();
+                
+                System.out.println(Thread.currentThread().getName() + ": problem " + problemName + 
+                                   " running algorithm: " + algorithmName + ", run: " + run);
+                long initTime = System.currentTimeMillis();
+                SolutionSet resultFront = algorithms[algorithm].execute();
+                long estimatedTime = System.currentTimeMillis() - initTime;
+                
+                String setFile = getSetFile() + "." + run + getExtension();
+                File tmpFile = new File(directory, setFile + TMP_SUFFIX);
+                if(binaryOutput){
+                    ColumnarFile.writeVariables(resultFront, tmpFile.getPath());
+                }
+                else{
+                    resultFront.printVariablesToFile(tmpFile.getPath());
+                }
+                if(tmpFile.exists()){
+                    commit(tmpFile, new File(directory, setFile));
+                }
+                
+                tmpFile = new File(directory, TIME_PREFIX + run + TMP_SUFFIX);
+                try(BufferedWriter writer = new BufferedWriter(new FileWriter(tmpFile))){
+                    writer.write(estimatedTime + "\n");
+                }
+                commit(tmpFile, new File(directory, TIME_PREFIX + run));
+                
+                // The front marks the run as finished
+                String frontFile = getFrontFile() + "." + run + getExtension();
+                tmpFile = new File(directory, frontFile + TMP_SUFFIX);
+                if(binaryOutput){
+                    ColumnarFile.writeObjectives(resultFront, tmpFile.getPath());
+                }
+                else{
+                    resultFront.printObjectivesToFile(tmpFile.getPath());
+                }
+                commit(tmpFile, new File(directory, frontFile));
+            }
+            catch(JMException | ClassNotFoundException | IOException e){
+                throw new IllegalStateException(algorithmName + " failed on " + problemName + 
+                                                " (run " + run + ")", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.experiments.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.experiments.Experiment;
+import jmetal.qualityIndicator.Epsilon;
+import jmetal.qualityIndicator.FastHypervolume;
+import jmetal.qualityIndicator.GenerationalDistance;
+import jmetal.qualityIndicator.InvertedGenerationalDistance;
+import jmetal.qualityIndicator.Spread;
+import jmetal.util.ColumnarFile;
+import jmetal.util.JMException;
+import jmetal.util.StrictlyNonDominatedSet;
+
+/**
+ * Computes the quality indicators of an experiment on a work-stealing pool. 
+ * Each (algorithm, problem, run) cell is a task, which reads the front of the
+ * run (with <code>MappedFrontReader</code>, or as a <code>ColumnarFile</code>
+ * if it was written in the binary format) and computes all the indicators of 
+ * the experiment (HV, SPREAD, EPSILON, IGD and GD) for it. 
+ * 
+ * The results are written in the same files as 
+ * <code>Experiment.generateQualityIndicators</code>
+ * (experimentBaseDirectory/data/algorithm/problem/indicator, with the value of 
+ * each run in a line), which are read by the LaTeX tables, the R scripts and 
+ * the Friedman test. The TIME files are written by 
+ * <code>ParallelExperimentRunner</code>.
+ * 
+ * If the experiment has no directory of Pareto fronts, the reference fronts 
+ * are generated by <code>Experiment</code>, which only reads text fronts. 
+ * With binary fronts, they are generated here instead: the reference front of
+ * a problem is the set of non-dominated points of all its fronts (written 
+ * to experimentBaseDirectory/referenceFronts/problem.rf).
+ * @author luiz
+ */
+public class ParallelIndicatorRunner {
+    
+    // Indicators computed (in the order of the experiment)
+    private static final String[] INDICATORS = {"HV", "SPREAD", "EPSILON", "IGD", "GD"};
+    
+    // Suffix of the files being written
+    private static final String TMP_SUFFIX = ".tmp";
+    
+    // Experiment configuring the algorithms and the output directories
+    private final Experiment experiment;
+    
+    // Indicators of the experiment computed here
+    private final List<String> indicators = new ArrayList<>();
+    
+    // Reference front of each problem
+    private double[][][] trueFronts;
+    
+    // Value of each indicator in each cell: [algorithm][problem][indicator][run]
+    private double[][][][] values;
+    
+    // Reader used by each thread
+    private final ThreadLocal<MappedFrontReader> readers = new ThreadLocal<MappedFrontReader>() {
+        @Override
+        protected MappedFrontReader initialValue() {
+            return new MappedFrontReader();
+        }
+    };
+    
+    /**
+     * Constructor
+     * @param experiment Experiment whose runs are finished
+     */
+    public ParallelIndicatorRunner(Experiment experiment) {
+        this.experiment = experiment;
+        for(String indicator : experiment.indicatorList_){
+            for(String supported : INDICATORS){
+                if(supported.equals(indicator)){
+                    indicators.add(indicator);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Computes the indicators of all the runs and writes the indicator files
+     * @param numberOfThreads Number of threads of the pool
+     * @throws JMException If a front could not be read or a file written
+     */
+    public void run(int numberOfThreads) throws JMException {
+        if(indicators.isEmpty()){
+            return;
+        }
+        boolean generateReferenceFronts = "".equals(experiment.paretoFrontDirectory_) && hasBinaryFronts();
+        String[] frontPaths = getFrontPaths(generateReferenceFronts);
+        
+        int numberOfAlgorithms = experiment.algorithmNameList_.length;
+        int numberOfProblems = experiment.problemList_.length;
+        trueFronts = new double[numberOfProblems][][];
+        values = new double[numberOfAlgorithms][numberOfProblems][indicators.size()][experiment.independentRuns_];
+        
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try{
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for(int problem = 0; problem < numberOfProblems; problem++){
+                tasks.add(pool.submit(new ReferenceFront(problem, frontPaths[problem], generateReferenceFronts)));
+            }
+            join(tasks);
+            
+            tasks.clear();
+            for(int problem = 0; problem < numberOfProblems; problem++){
+                for(int run = 0; run < experiment.independentRuns_; run++){
+                    for(int algorithm = 0; algorithm < numberOfAlgorithms; algorithm++){
+                        tasks.add(pool.submit(new Cell(algorithm, problem, run)));
+                    }
+                }
+            }
+            join(tasks);
+        }
+        finally{
+            pool.shutdown();
+        }
+        
+        writeIndicatorFiles();
+    }
+    
+    /**
+     * @param generateReferenceFronts True if the reference fronts are 
+     * generated by this runner
+     * @return The path of the reference front of each problem
+     */
+    private String[] getFrontPaths(boolean generateReferenceFronts) {
+        if(generateReferenceFronts){
+            File directory = new File(experiment.experimentBaseDirectory_ + "/referenceFronts");
+            directory.mkdirs();
+            experiment.frontPath_ = new String[experiment.problemList_.length];
+            for(int problem = 0; problem < experiment.frontPath_.length; problem++){
+                experiment.frontPath_[problem] = new File(directory, experiment.problemList_[problem] + ".rf").getPath();
+            }
+            return experiment.frontPath_;
+        }
+        if("".equals(experiment.paretoFrontDirectory_)){
+            experiment.generateReferenceFronts();
+            return experiment.frontPath_;
+        }
+        String[] frontPaths = new String[experiment.problemList_.length];
+        for(int problem = 0; problem < frontPaths.length; problem++){
+            frontPaths[problem] = experiment.paretoFrontDirectory_ + "/" + experiment.paretoFrontFile_[problem];
+        }
+        return frontPaths;
+    }
+    
+    private static void join(List<ForkJoinTask<?>> tasks) throws JMException {
+        int failures = 0;
+        for(ForkJoinTask<?> task : tasks){
+            try{
+                task.join();
+            }
+            catch(RuntimeException e){
+                Logger.getLogger(ParallelIndicatorRunner.class.getName()).log(Level.SEVERE, null, e);
+                failures++;
+            }
+        }
+        if(failures > 0){
+            throw new JMException("The indicators of " + failures + " of " + tasks.size() + 
+                                  " fronts could not be computed");
+        }
+    }
+    
+    /**
+     * @return The directory of the results of an algorithm for a problem
+     */
+    private File getDirectory(int algorithm, int problem) {
+        return new File(experiment.experimentBaseDirectory_ + "/data/" + 
+                        experiment.algorithmNameList_[algorithm] + "/" + 
+                        experiment.problemList_[problem]);
+    }
+    
+    private String getFrontFile() {
+        return experiment.outputParetoFrontFile_ == null ? "FUN" : experiment.outputParetoFrontFile_;
+    }
+    
+    private File getBinaryFrontFile(int algorithm, int problem, int run) {
+        return new File(getDirectory(algorithm, problem), getFrontFile() + "." + run + ColumnarFile.EXTENSION);
+    }
+    
+    /**
+     * @return True if some front was written in the binary format
+     */
+    private boolean hasBinaryFronts() {
+        for(int algorithm = 0; algorithm < experiment.algorithmNameList_.length; algorithm++){
+            for(int problem = 0; problem < experiment.problemList_.length; problem++){
+                for(int run = 0; run < experiment.independentRuns_; run++){
+                    if(getBinaryFrontFile(algorithm, problem, run).exists()){
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Reads the front of a run, in the binary format if it exists
+     */
+    private double[][] readFront(int algorithm, int problem, int run) {
+        File frontFile = getBinaryFrontFile(algorithm, problem, run);
+        try{
+            if(frontFile.exists()){
+                return ColumnarFile.open(frontFile).toRows();
+            }
+            frontFile = new File(getDirectory(algorithm, problem), getFrontFile() + "." + run);
+            return readers.get().readFront(frontFile);
+        }
+        catch(IOException e){
+            throw new IllegalStateException("Error reading " + frontFile, e);
+        }
+    }
+    
+    /**
+     * Writes the file of each indicator of each (algorithm, problem) pair
+     */
+    private void writeIndicatorFiles() throws JMException {
+        for(int algorithm = 0; algorithm < experiment.algorithmNameList_.length; algorithm++){
+            for(int problem = 0; problem < experiment.problemList_.length; problem++){
+                File directory = getDirectory(algorithm, problem);
+                for(int indicator = 0; indicator < indicators.size(); indicator++){
+                    File tmpFile = new File(directory, indicators.get(indicator) + TMP_SUFFIX);
+                    try{
+                        try(BufferedWriter writer = new BufferedWriter(new FileWriter(tmpFile))){
+                            for(double value : values[algorithm][problem][indicator]){
+                                writer.write("" + value + "\n");
+                            }
+                        }
+                        Files.move(tmpFile.toPath(), new File(directory, indicators.get(indicator)).toPath(), 
+                                   StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    catch(IOException e){
+                        throw new JMException("Error writing the " + indicators.get(indicator) + 
+                                              " file of " + directory + ": " + e);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reading (or generation) of the reference front of a problem
+     */
+    private class ReferenceFront implements Runnable {
+        private final int problem;
+        private final String path;
+        private final boolean generate;
+
+        ReferenceFront(int problem, String path, boolean generate) {
+            this.problem = problem;
+            this.path = path;
+            this.generate = generate;
+        }
+        
+        @Override
+        public void run() {
+            if(generate){
+                trueFronts[problem] = generate();
+                return;
+            }
+            try{
+                trueFronts[problem] = readers.get().readFront(new File(path));
+            }
+            catch(IOException e){
+                throw new IllegalStateException("Error reading the reference front of " + 
+                                                experiment.problemList_[problem], e);
+            }
+        }
+        
+        /**
+         * Writes the non-dominated points of all the fronts of the problem
+         * (as <code>Experiment.generateReferenceFronts</code>)
+         * @return The reference front
+         */
+        private double[][] generate() {
+            List<double[][]> fronts = new ArrayList<>();
+            int numberOfPoints = 0;
+            for(int algorithm = 0; algorithm < experiment.algorithmNameList_.length; algorithm++){
+                for(int run = 0; run < experiment.independentRuns_; run++){
+                    double[][] front = readFront(algorithm, problem, run);
+                    fronts.add(front);
+                    numberOfPoints += front.length;
+                }
+            }
+            SolutionSet points = new SolutionSet(numberOfPoints);
+            for(double[][] front : fronts){
+                for(double[] point : front){
+                    Solution solution = new Solution(point.length);
+                    for(int i = 0; i < point.length; i++){
+                        solution.setObjective(i, point[i]);
+                    }
+                    points.add(solution);
+                }
+            }
+            
+            List<Solution> nonDominated = new StrictlyNonDominatedSet(points).getNonDominatedSet();
+            SolutionSet referenceFront = new SolutionSet(nonDominated.size());
+            double[][] trueFront = new double[nonDominated.size()][];
+            for(int p = 0; p < trueFront.length; p++){
+                Solution solution = nonDominated.get(p);
+                referenceFront.add(solution);
+                trueFront[p] = new double[solution.getNumberOfObjectives()];
+                for(int i = 0; i < trueFront[p].length; i++){
+                    trueFront[p][i] = solution.getObjective(i);
+                }
+            }
+            referenceFront.printObjectivesToFile(path);
+            return trueFront;
+        }
+    }
+    
+    /**
+     * Indicators of an independent run of an algorithm for a problem
+     */
+    private class Cell implements Runnable {
+        private final int algorithm;
+        private final int problem;
+        private final int run;
+
+        Cell(int algorithm, int problem, int run) {
+            this.algorithm = algorithm;
+            this.problem = problem;
+            this.run = run;
+        }
+        
+        @Override
+        public void run() {
+            double[][] front = readFront(algorithm, problem, run);
+            double[][] trueFront = trueFronts[problem];
+            int numberOfObjectives = trueFront[0].length;
+            
+            // The indicators are new objects, so no state is shared by the threads
+            for(int indicator = 0; indicator < indicators.size(); indicator++){
+                double value;
+                switch(indicators.get(indicator)){
+                    case "HV":
+                        value = new FastHypervolume().hypervolume(front, trueFront, numberOfObjectives);
+                        break;
+                    case "SPREAD":
+                        value = new Spread().spread(front, trueFront, numberOfObjectives);
+                        break;
+                    case "EPSILON":
+                        value = new Epsilon().epsilon(front, trueFront, numberOfObjectives);
+                        break;
+                    case "IGD":
+                        value = new InvertedGenerationalDistance().invertedGenerationalDistance(front, trueFront, numberOfObjectives);
+                        break;
+                    default:
+                        value = new GenerationalDistance().generationalDistance(front, trueFront, numberOfObjectives);
+                        break;
+                }
+                values[algorithm][problem][indicator][run] = value;
+            }
+        }
+    }
+}
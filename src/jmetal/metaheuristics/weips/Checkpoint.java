@@ -0,0 +1,285 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * State of a WeiPS run between two generations: the seed and the state of 
+ * the random generator, the number of evaluations, the index of the next 
+ * generation and the population 
+ * (decision variables, objectives and constraint violation of each solution,
+ * so no solution is evaluated again). The tournament permutation is created
+ * again at the begining of each generation, so it is not saved. The state of
+ * the evaluation cache and of the time and stagnation stopping conditions is
+ * not saved either, so Weips does not checkpoint runs depending on it.
+ * 
+ * Binary format (big-endian): magic, version, seed, random state, 
+ * evaluations, generation (since version 2), population size, number of variables, number of objectives 
+ * and, for each solution, the variables, the objectives, the overall 
+ * constraint violation and the number of violated constraints.
+ * @author luiz
+ */
+class Checkpoint {
+    
+    private static final int MAGIC = 0x57456950; // "WEiP"
+    private static final int VERSION = 2;
+    
+    private final long seed;
+    private final long randomState;
+    private final int evaluations;
+    private final int generation;
+    private final SolutionSet population;
+    
+    Checkpoint(long seed, long randomState, int evaluations, int generation, SolutionSet population) {
+        this.seed = seed;
+        this.randomState = randomState;
+        this.evaluations = evaluations;
+        this.generation = generation;
+        this.population = population;
+    }
+    
+    long getSeed() {
+        return seed;
+    }
+    
+    long getRandomState() {
+        return randomState;
+    }
+    
+    int getEvaluations() {
+        return evaluations;
+    }
+    
+    /**
+     * @return The index of the generation the run resumes from (0 for the 
+     * checkpoints of version 1, which do not store it)
+     */
+    int getGeneration() {
+        return generation;
+    }
+    
+    SolutionSet getPopulation() {
+        return population;
+    }
+    
+    /**
+     * Copies the state of a run to an array of bytes (fast enough to be done 
+     * by the thread running the algorithm)
+     * @return The encoded checkpoint
+     * @throws JMException If the solutions are not real coded
+     */
+    static byte[] encode(long seed, long randomState, int evaluations, int generation, 
+                         SolutionSet population) throws JMException {
+        int numberOfVariables = population.size() == 0 ? 0 : 
+                new XReal(population.get(0)).getNumberOfDecisionVariables();
+        int numberOfObjectives = population.size() == 0 ? 0 : 
+                population.get(0).getNumberOfObjectives();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                44 + population.size() * (8 * (numberOfVariables + numberOfObjectives + 1) + 4));
+        try(DataOutputStream out = new DataOutputStream(bytes)){
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeLong(randomState);
+            out.writeInt(evaluations);
+            out.writeInt(generation);
+            out.writeInt(population.size());
+            out.writeInt(numberOfVariables);
+            out.writeInt(numberOfObjectives);
+            for(int k = 0; k < population.size(); k++){
+                Solution solution = population.get(k);
+                XReal variables = new XReal(solution);
+                for(int i = 0; i < numberOfVariables; i++){
+                    out.writeDouble(variables.getValue(i));
+                }
+                for(int j = 0; j < numberOfObjectives; j++){
+                    out.writeDouble(solution.getObjective(j));
+                }
+                out.writeDouble(solution.getOverallConstraintViolation());
+                out.writeInt(solution.getNumberOfViolatedConstraint());
+            }
+        }
+        catch(IOException e){
+            throw new JMException("Error encoding the checkpoint: " + e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Reads a checkpoint. The solutions are created with 
+     * <code>new Solution(problem)</code> (which uses random numbers) and then
+     * receive the saved values, so the random generator must be restored after
+     * the read
+     * @param file Checkpoint file
+     * @param problem Problem solved by the run
+     * @return The checkpoint
+     * @throws JMException If the file can not be read or does not match the problem
+     */
+    static Checkpoint read(File file, Problem problem) throws JMException, ClassNotFoundException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))){
+            if(in.readInt() != MAGIC){
+                throw new JMException(file + " is not a WeiPS checkpoint");
+            }
+            int version = in.readInt();
+            if(version < 1 || version > VERSION){
+                throw new JMException("The checkpoint " + file + " has the unknown version " + version);
+            }
+            long seed = in.readLong();
+            long randomState = in.readLong();
+            int evaluations = in.readInt();
+            int generation = version >= 2 ? in.readInt() : 0;
+            int size = in.readInt();
+            int numberOfVariables = in.readInt();
+            int numberOfObjectives = in.readInt();
+            if(numberOfObjectives != problem.getNumberOfObjectives()){
+                throw new JMException("The checkpoint " + file + " has " + numberOfObjectives + 
+                                      " objectives and the problem has " + problem.getNumberOfObjectives());
+            }
+            SolutionSet population = new SolutionSet(size);
+            for(int k = 0; k < size; k++){
+                Solution solution = new Solution(problem);
+                XReal variables = new XReal(solution);
+                if(variables.getNumberOfDecisionVariables() != numberOfVariables){
+                    throw new JMException("The checkpoint " + file + " has " + numberOfVariables + 
+                                          " variables and the problem has " + 
+                                          variables.getNumberOfDecisionVariables());
+                }
+                for(int i = 0; i < numberOfVariables; i++){
+                    variables.setValue(i, in.readDouble());
+                }
+                for(int j = 0; j < numberOfObjectives; j++){
+                    solution.setObjective(j, in.readDouble());
+                }
+                solution.setOverallConstraintViolation(in.readDouble());
+                solution.setNumberOfViolatedConstraint(in.readInt());
+                population.add(solution);
+            }
+            return new Checkpoint(seed, randomState, evaluations, generation, population);
+        }
+        catch(IOException e){
+            throw new JMException("Error reading the checkpoint " + file + ": " + e);
+        }
+    }
+    
+    /**
+     * Writes encoded checkpoints to a file on a background thread. Each 
+     * checkpoint is written to a temporary file and then moved to the 
+     * checkpoint file, so the file always holds a complete checkpoint
+     */
+    static class Writer {
+        private final File file;
+        private final ExecutorService executor;
+        
+        // Last write (null if none)
+        private Future<?> pendingWrite;
+        
+        Writer(File file) {
+            this.file = file;
+            this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "weips-checkpoint");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        
+        /**
+         * Writes a checkpoint in background. If the previous checkpoint is 
+         * still being written, waits for it first
+         * @param checkpoint Encoded checkpoint
+         * @throws JMException If the previous write failed
+         */
+        void write(final byte[] checkpoint) throws JMException {
+            waitForPendingWrite();
+            pendingWrite = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    File tmpFile = new File(file.getPath() + ".tmp");
+                    try(FileOutputStream out = new FileOutputStream(tmpFile)){
+                        out.write(checkpoint);
+                        out.getFD().sync();
+                    }
+                    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+                               StandardCopyOption.ATOMIC_MOVE);
+                    return null;
+                }
+            });
+        }
+        
+        /**
+         * Waits for the last write and stops the background thread
+         * @throws JMException If the last write failed
+         */
+        void close() throws JMException {
+            try{
+                waitForPendingWrite();
+            }
+            finally{
+                executor.shutdown();
+            }
+        }
+        
+        private void waitForPendingWrite() throws JMException {
+            if(pendingWrite == null){
+                return;
+            }
+            try{
+                pendingWrite.get();
+            }
+            catch(ExecutionException e){
+                throw new JMException("Error writing the checkpoint " + file + ": " + e.getCause());
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new JMException("Interrupted while writing the checkpoint " + file);
+            }
+            finally{
+                pendingWrite = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+
+/**
+ * Writes snapshots of the front of a run to a text file in background. The 
+ * objectives of a snapshot are copied by the caller and formatted and written
+ * by a single thread, through a buffered writer. Each snapshot starts with 
+ * the line <code># generation g evaluations e</code>, followed by one line per
+ * solution (as in the FUN files). If the writer falls behind by more than
+ * <code>MAX_PENDING</code> snapshots, the new snapshots are dropped instead 
+ * of blocking the run. A resumed run appends its snapshots to the file of 
+ * the checkpointed run.
+ * @author luiz
+ */
+class FrontWriter {
+    
+    private static final Logger logger = Logger.getLogger(FrontWriter.class.getName());
+    
+    static final int MAX_PENDING = 64;
+    
+    private final File file;
+    private final BufferedWriter writer;
+    private final ThreadPoolExecutor executor;
+    
+    // Written by the background thread
+    private volatile IOException error = null;
+    // Written by the run thread
+    private int dropped = 0;
+    
+    /**
+     * Constructor. The snapshots of the generations from 
+     * <code>firstGeneration</code> on are removed from the file (they were 
+     * written after the checkpoint a run resumes from) and the new snapshots 
+     * are appended, so 0 truncates the file
+     * @param file Output file
+     * @param firstGeneration First generation written
+     * @throws JMException If the file can not be created
+     */
+    FrontWriter(File file, int firstGeneration) throws JMException {
+        this.file = file;
+        try{
+            if(firstGeneration > 0 && file.exists()){
+                long end = findSnapshot(file, firstGeneration);
+                try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)){
+                    channel.truncate(end);
+                }
+                this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, 
+                                                      StandardOpenOption.APPEND);
+            }
+            else{
+                this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+            }
+        }
+        catch(IOException e){
+            throw new JMException("Error creating the front file " + file + ": " + e);
+        }
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, 
+                                               new ArrayBlockingQueue<Runnable>(MAX_PENDING), 
+                                               new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "weips-front-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+                dropped++;
+            }
+        });
+    }
+    
+    /**
+     * Writes a snapshot of the front in background
+     * @param generation Generation of the snapshot
+     * @param evaluations Number of evaluations of the snapshot
+     * @param front Solutions of the front (their objectives are copied)
+     */
+    void write(final int generation, final int evaluations, List<Solution> front) {
+        final double[][] objectives = new double[front.size()][];
+        for (int p = 0; p < objectives.length; p++) {
+            Solution solution = front.get(p);
+            objectives[p] = new double[solution.getNumberOfObjectives()];
+            for (int i = 0; i < objectives[p].length; i++) {
+                objectives[p][i] = solution.getObjective(i);
+            }
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if(error != null){
+                    return;
+                }
+                try{
+                    writer.write("# generation " + generation + " evaluations " + evaluations);
+                    writer.newLine();
+                    StringBuilder line = new StringBuilder();
+                    for (double[] point : objectives) {
+                        line.setLength(0);
+                        for (double value : point) {
+                            line.append(value).append(' ');
+                        }
+                        writer.write(line.toString());
+                        writer.newLine();
+                    }
+                }
+                catch(IOException e){
+                    error = e;
+                }
+            }
+        });
+    }
+    
+    /**
+     * Finds the first snapshot of a generation not smaller than the given one
+     * @param file Front file
+     * @param generation Index of the generation
+     * @return The offset of the snapshot (the size of the file if there is 
+     * none)
+     */
+    private static long findSnapshot(File file, int generation) throws IOException {
+        String prefix = "# generation ";
+        try(InputStream in = new BufferedInputStream(new FileInputStream(file))){
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = 0;
+            long lineStart = 0;
+            int b;
+            while((b = in.read()) != -1){
+                offset++;
+                if(b != '\n'){
+                    line.write(b);
+                    continue;
+                }
+                String header = new String(line.toByteArray(), StandardCharsets.UTF_8).trim();
+                line.reset();
+                if(header.startsWith(prefix)){
+                    String[] fields = header.substring(prefix.length()).split(" ");
+                    if(Integer.parseInt(fields[0]) >= generation){
+                        return lineStart;
+                    }
+                }
+                lineStart = offset;
+            }
+            // A partial line (of a write interrupted by a crash) is removed
+            return lineStart;
+        }
+        catch(NumberFormatException e){
+            throw new IOException(file + " is not a front file: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Waits for the pending snapshots and closes the file
+     * @throws JMException If a snapshot could not be written
+     */
+    void close() throws JMException {
+        executor.shutdown();
+        try{
+            while(!executor.awaitTermination(1, TimeUnit.SECONDS)){
+                // The remaining snapshots are still being written
+            }
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while writing the front file " + file);
+        }
+        finally{
+            try{
+                writer.close();
+            }
+            catch(IOException e){
+                if(error == null){
+                    error = e;
+                }
+            }
+        }
+        if(dropped > 0){
+            logger.warning(dropped + " front snapshots were dropped (the writer of " + file + " was behind)");
+        }
+        if(error != null){
+            throw new JMException("Error writing the front file " + file + ": " + error);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Metrics of a generation of <code>Weips</code>, reported to the 
+ * <code>GenerationListener</code>s. Times are in nanoseconds.
+ * @author luiz
+ */
+public class GenerationMetrics {
+    
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    
+    int generation;
+    int evaluations;
+    int numberOfEvaluated;
+    int cacheHits;
+    long evaluationTime;
+    long variationTime;
+    long rankingTime;
+    int frontSize;
+    long replacementTime;
+    long numberOfComparisons;
+    long numberOfDominanceChecks;
+    long allocatedBytes;
+    
+    GenerationMetrics(int generation) {
+        this.generation = generation;
+    }
+    
+    /**
+     * Bytes allocated so far by the current thread, if the JVM measures them
+     * @return The number of bytes or -1 if it is not supported
+     */
+    static long currentAllocatedBytes() {
+        if(threadBean instanceof com.sun.management.ThreadMXBean){
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+            if(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()){
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the generation (starting from 0)
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return The number of evaluations at the end of the generation
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return The number of solutions evaluated in the generation
+     */
+    public int getNumberOfEvaluated() {
+        return numberOfEvaluated;
+    }
+
+    /**
+     * @return The number of offspring taken from the evaluation cache (they
+     * are included in the number of evaluated solutions)
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return The time spent evaluating the offspring
+     */
+    public long getEvaluationTime() {
+        return evaluationTime;
+    }
+    
+    /**
+     * @return The evaluations per second of the generation
+     */
+    public double getThroughput() {
+        return evaluationTime == 0 ? 0 : numberOfEvaluated * 1e9 / evaluationTime;
+    }
+
+    /**
+     * @return The time spent in the selection of the parents and in the 
+     * variation operators
+     */
+    public long getVariationTime() {
+        return variationTime;
+    }
+
+    /**
+     * @return The time spent ranking the union with the 
+     * <code>StrictlyNonDominatedSet</code>
+     */
+    public long getRankingTime() {
+        return rankingTime;
+    }
+
+    /**
+     * @return The number of strictly non-dominated solutions of the union
+     */
+    public int getFrontSize() {
+        return frontSize;
+    }
+
+    /**
+     * @return The time spent selecting the new population from the ranked
+     * union
+     */
+    public long getReplacementTime() {
+        return replacementTime;
+    }
+
+    /**
+     * @return The number of comparisons made by the Weips comparator
+     */
+    public long getNumberOfComparisons() {
+        return numberOfComparisons;
+    }
+
+    /**
+     * @return The number of dominance checks made ranking the union
+     */
+    public long getNumberOfDominanceChecks() {
+        return numberOfDominanceChecks;
+    }
+
+    /**
+     * @return The bytes allocated by the thread running the algorithm (the 
+     * evaluation threads are not included), or -1 if it is not supported
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "generation=" + generation + " evaluations=" + evaluations + 
+                " cacheHits=" + cacheHits + " evaluationTime=" + evaluationTime + " throughput=" + getThroughput() + 
+                " variationTime=" + variationTime + " rankingTime=" + rankingTime + 
+                " frontSize=" + frontSize + " replacementTime=" + replacementTime + 
+                " comparisons=" + numberOfComparisons + " dominanceChecks=" + numberOfDominanceChecks + 
+                " allocatedBytes=" + allocatedBytes;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
+import jmetal.util.SplitMixRandomGenerator;
+import jmetal.util.StrictlyNonDominatedSet;
+
+/**
+ * Island mode of <code>Weips</code>. Each island is a copy of the algorithm,
+ * with a share of the population and of the evaluations, running in a thread
+ * of its own. The islands of the lattice methods (Grips and StratGrips) use 
+ * disjoint regions of the weight matrix, and the other islands draw their own 
+ * weights. Every <code>migrationInterval</code> generations, an island sends 
+ * random non-dominated solutions to the next island of a ring. The migrants 
+ * are left in a single slot per island, replacing the ones not received yet,
+ * so the islands never wait for each other. The received migrants join the 
+ * offspring in the next replacement. The final front is the strictly 
+ * non-dominated set of the fronts of the islands.
+ * 
+ * Each island draws from its own random generator (seeded from the seed of 
+ * the run), but the migrations depend on the scheduling of the threads.
+ * @author luiz
+ */
+class IslandModel {
+    
+    private final Weips algorithm;
+    private final int numberOfIslands;
+    private final int migrationInterval;
+    private final int numberOfMigrants;
+    
+    // Last migrants sent to each island and not received yet
+    private final AtomicReferenceArray<Solution[]> inboxes;
+    
+    // Generations run by each island (each entry is used by a single thread)
+    private final int[] generations;
+    
+    /**
+     * Constructor
+     * @param algorithm Algorithm whose parameters and operators are copied to
+     * the islands
+     * @param numberOfIslands Number of islands
+     */
+    IslandModel(Weips algorithm, int numberOfIslands) {
+        this.algorithm = algorithm;
+        this.numberOfIslands = numberOfIslands;
+        this.migrationInterval = algorithm.getInputParameter(Weips.p_migrationInterval) == null ? 
+                10 : (Integer) algorithm.getInputParameter(Weips.p_migrationInterval);
+        this.numberOfMigrants = algorithm.getInputParameter(Weips.p_numberOfMigrants) == null ? 
+                2 : (Integer) algorithm.getInputParameter(Weips.p_numberOfMigrants);
+        this.inboxes = new AtomicReferenceArray<>(numberOfIslands);
+        this.generations = new int[numberOfIslands];
+    }
+    
+    /**
+     * @return The number of islands
+     */
+    int getNumberOfIslands() {
+        return numberOfIslands;
+    }
+    
+    /**
+     * Runs the islands and merges their fronts
+     * @return The strictly non-dominated solutions of the fronts of the islands
+     * @throws JMException
+     * @throws ClassNotFoundException 
+     */
+    SolutionSet run() throws JMException, ClassNotFoundException {
+        if(algorithm.getInputParameter(Weips.p_checkpointFile) != null){
+            throw new JMException("Checkpoints are not supported in the island mode");
+        }
+        if(algorithm.getInputParameter(Weips.p_steadyState) != null && 
+                (Boolean) algorithm.getInputParameter(Weips.p_steadyState)){
+            throw new JMException("The steady-state mode is not supported in the island mode");
+        }
+        // The conditions given are instances, which would be shared by the 
+        // threads of the islands (maxTime and stagnationWindow create the 
+        // conditions of each island)
+        if(algorithm.getInputParameter(Weips.p_stoppingConditions) != null){
+            throw new JMException("The stopping conditions can not be given as instances in the island mode");
+        }
+        long seed = algorithm.getInputParameter(Weips.p_seed) == null ? 
+                SplitMixRandomGenerator.newSeed() : ((Number) algorithm.getInputParameter(Weips.p_seed)).longValue();
+        SplitMixRandomGenerator seeds = new SplitMixRandomGenerator(seed);
+        
+        List<Weips> islands = new ArrayList<>(numberOfIslands);
+        for (int i = 0; i < numberOfIslands; i++) {
+            islands.add(algorithm.createIsland(this, i, seeds.nextLong()));
+        }
+        
+        final AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfIslands, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "weips-island-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        List<SolutionSet> fronts = new ArrayList<>(numberOfIslands);
+        try{
+            List<Future<SolutionSet>> results = new ArrayList<>(numberOfIslands);
+            for (final Weips island : islands) {
+                results.add(executor.submit(new Callable<SolutionSet>() {
+                    @Override
+                    public SolutionSet call() throws JMException, ClassNotFoundException {
+                        return island.execute();
+                    }
+                }));
+            }
+            for (Future<SolutionSet> result : results) {
+                fronts.add(result.get());
+            }
+        }
+        catch(ExecutionException e){
+            if(e.getCause() instanceof JMException){
+                throw (JMException) e.getCause();
+            }
+            throw new JMException("Island failed: " + e.getCause());
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while waiting for the islands");
+        }
+        finally{
+            executor.shutdownNow();
+        }
+        
+        int size = 0;
+        for (SolutionSet front : fronts) {
+            size += front.size();
+        }
+        SolutionSet union = new SolutionSet(size);
+        for (SolutionSet front : fronts) {
+            for (int i = 0; i < front.size(); i++) {
+                union.add(front.get(i));
+            }
+        }
+        List<Solution> nonDominated = new StrictlyNonDominatedSet(union).getNonDominatedSet();
+        SolutionSet front = new SolutionSet(nonDominated.size());
+        for (Solution solution : nonDominated) {
+            front.add(solution);
+        }
+        return front;
+    }
+    
+    /**
+     * Exchanges migrants at the end of the offspring creation of an island
+     * (every <code>migrationInterval</code> generations)
+     * @param island The island
+     * @param index Index of the island
+     * @param offspring Offspring of the generation
+     * @return The offspring, with the migrants received (if any)
+     */
+    SolutionSet migrate(Weips island, int index, SolutionSet offspring) {
+        generations[index]++;
+        if(generations[index] % migrationInterval != 0){
+            return offspring;
+        }
+        // Random non-dominated solutions of the population (copied, as each
+        // island changes its own solutions)
+        SolutionSet front = island.archive.getFront(island.population);
+        Solution[] candidates = new Solution[front.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = front.get(i);
+        }
+        Solution[] emigrants = new Solution[Math.min(numberOfMigrants, candidates.length)];
+        for (int i = 0; i < emigrants.length; i++) {
+            int j = island.random.nextInt(i, candidates.length - 1);
+            Solution selected = candidates[j];
+            candidates[j] = candidates[i];
+            candidates[i] = selected;
+            emigrants[i] = new Solution(selected);
+        }
+        inboxes.set((index + 1) % numberOfIslands, emigrants);
+        
+        Solution[] immigrants = inboxes.getAndSet(index, null);
+        if(immigrants == null || immigrants.length == 0){
+            return offspring;
+        }
+        SolutionSet extended = new SolutionSet(offspring.size() + immigrants.length);
+        for (int i = 0; i < offspring.size(); i++) {
+            extended.add(offspring.get(i));
+        }
+        for (Solution immigrant : immigrants) {
+            extended.add(immigrant);
+        }
+        return extended;
+    }
+}
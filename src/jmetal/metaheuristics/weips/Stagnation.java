@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import jmetal.core.SolutionSet;
+import jmetal.qualityIndicator.QualityIndicator;
+import jmetal.util.JMException;
+
+/**
+ * Stops the run when a measure of the front does not change more than a 
+ * tolerance over a sliding window of generations. The measure is the 
+ * hypervolume of the population, if a <code>QualityIndicator</code> is given,
+ * or the size of the strictly non-dominated front of the union.
+ * @author luiz
+ */
+public class Stagnation implements StoppingCondition {
+    
+    private final int window;
+    private final double tolerance;
+    // Indicator used to compute the hypervolume (null to use the front size)
+    private final QualityIndicator indicators;
+    
+    // Measures of the last generations (at most window + 1)
+    private final Deque<Double> measures;
+
+    /**
+     * Constructor for the stagnation of the front size
+     * @param window Number of generations without changes
+     * @param tolerance Maximum change of the front size in the window
+     */
+    public Stagnation(int window, double tolerance) {
+        this(window, tolerance, null);
+    }
+
+    /**
+     * Constructor for the stagnation of the hypervolume
+     * @param window Number of generations without changes
+     * @param tolerance Maximum change of the hypervolume in the window
+     * @param indicators Quality indicators of the problem (null to use the 
+     * front size)
+     */
+    public Stagnation(int window, double tolerance, QualityIndicator indicators) {
+        this.window = window;
+        this.tolerance = tolerance;
+        this.indicators = indicators;
+        this.measures = new ArrayDeque<>(window + 1);
+    }
+
+    @Override
+    public void start() {
+        measures.clear();
+    }
+
+    @Override
+    public boolean isMet(GenerationMetrics metrics, SolutionSet population) throws JMException {
+        double measure;
+        if(indicators != null){
+            measure = indicators.getHypervolume(population);
+        }
+        else{
+            measure = metrics.getFrontSize();
+        }
+        measures.addLast(measure);
+        if(measures.size() > window + 1){
+            measures.removeFirst();
+        }
+        if(measures.size() <= window){
+            return false;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for(double value : measures){
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        return max - min <= tolerance;
+    }
+
+    @Override
+    public String getName() {
+        return indicators != null ? "hypervolumeStagnation" : "frontSizeStagnation";
+    }
+}
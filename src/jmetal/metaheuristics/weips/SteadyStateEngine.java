@@ -0,0 +1,353 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+import jmetal.util.StrictlyNonDominatedSet;
+import jmetal.util.comparators.DominanceComparator;
+import jmetal.util.comparators.OverallConstraintViolationComparator;
+
+/**
+ * Asynchronous steady-state main loop of WeiPS. Each worker of the evaluator
+ * evaluates one offspring at a time. As soon as an offspring is evaluated, 
+ * it is inserted in the population, one solution is removed and a new 
+ * offspring is given to the free worker, so no worker waits for the slowest
+ * evaluation of a generation.
+ * 
+ * The population, the operators and the random numbers are only used by the
+ * thread running the algorithm; the workers only evaluate solutions.
+ * @author luiz
+ */
+class SteadyStateEngine {
+    
+    // Algorithm holding the population, the operators and the evaluator
+    private final Weips algorithm;
+    
+    // Problem solved
+    private final Problem problem;
+    
+    // Comparator used by the replacement tournaments
+    private final Comparator<Solution> comparator;
+    
+    // Comparators giving the dominance relation (as in StrictlyNonDominatedSet)
+    private final Comparator<Solution> dominance;
+    private final Comparator<Solution> constraint;
+    
+    // Number of solutions compared in each replacement tournament
+    private final int tournamentSize;
+    
+    // Strictly non-dominated and dominated solutions of the population
+    private final List<Solution> nonDominated;
+    private final List<Solution> dominated;
+    
+    // Second child of the last crossover, waiting for a free worker
+    private final Deque<Solution> pending;
+    
+    /**
+     * Constructor. The population of the algorithm must be initialized
+     * @param algorithm Algorithm to run
+     */
+    @SuppressWarnings("unchecked") // The jMetal comparators are raw
+    SteadyStateEngine(Weips algorithm) {
+        this.algorithm = algorithm;
+        this.problem = algorithm.getProblem();
+        this.comparator = algorithm.weipsComparator;
+        this.dominance = new DominanceComparator();
+        this.constraint = new OverallConstraintViolationComparator();
+        this.tournamentSize = (Integer) algorithm.getInputParameter(Weips.p_tournamentSize);
+        this.pending = new ArrayDeque<>();
+        
+        StrictlyNonDominatedSet strictlyNDS = new StrictlyNonDominatedSet(algorithm.population);
+        this.nonDominated = new ArrayList<>(strictlyNDS.getNonDominatedSet());
+        this.dominated = new ArrayList<>(strictlyNDS.getDominatedSet());
+    }
+    
+    /**
+     * Creates, evaluates and inserts offspring until the maximum number of 
+     * evaluations is reached or a stopping condition is met. The conditions
+     * are checked (and the front is written) every <code>populationSize</code>
+     * insertions
+     * @throws JMException 
+     */
+    void run() throws JMException {
+        CompletionService<Solution> evaluations = 
+                new ExecutorCompletionService<>(algorithm.evaluator.getExecutor());
+        int workers = algorithm.evaluator.getParallelism();
+        algorithm.tournmentSelOperator.resetPermutation(algorithm.populationSize);
+        
+        boolean checkConditions = algorithm.hasStoppingConditions();
+        boolean stopped = false;
+        int inserted = 0;
+        int running = 0;
+        while(running < workers && algorithm.evaluations < algorithm.maxEvaluations){
+            submit(evaluations, nextOffspring());
+            running++;
+        }
+        while(running > 0){
+            Solution offspring = take(evaluations);
+            running--;
+            if(algorithm.evaluationCache != null){
+                algorithm.evaluationCache.store(offspring);
+            }
+            insert(offspring);
+            inserted++;
+            if(!stopped && inserted % algorithm.populationSize == 0){
+                int generation = inserted / algorithm.populationSize - 1;
+                if(checkConditions){
+                    GenerationMetrics metrics = new GenerationMetrics(generation);
+                    metrics.evaluations = algorithm.evaluations;
+                    metrics.frontSize = nonDominated.size();
+                    stopped = algorithm.checkStoppingConditions(metrics);
+                }
+                if(algorithm.isFrontWritten(generation)){
+                    algorithm.writeFront(generation, nonDominated);
+                }
+            }
+            // After a stop, the offspring being evaluated are still inserted
+            if(!stopped && algorithm.evaluations < algorithm.maxEvaluations){
+                submit(evaluations, nextOffspring());
+                running++;
+            }
+        }
+    }
+    
+    /**
+     * Gives an offspring to the workers. An offspring found in the evaluation
+     * cache is completed immediately
+     */
+    private void submit(CompletionService<Solution> evaluations, final Solution offspring) throws JMException {
+        algorithm.evaluations++;
+        final boolean isCached = algorithm.evaluationCache != null && 
+                algorithm.evaluationCache.lookup(offspring);
+        if(isCached && !algorithm.cacheHitsAreEvaluations){
+            algorithm.evaluations--;
+        }
+        evaluations.submit(new Callable<Solution>() {
+            @Override
+            public Solution call() throws JMException {
+                if(!isCached){
+                    algorithm.evaluator.evaluate(Collections.singletonList(offspring));
+                }
+                return offspring;
+            }
+        });
+    }
+    
+    /**
+     * Waits for the next evaluated offspring
+     */
+    private Solution take(CompletionService<Solution> evaluations) throws JMException {
+        try{
+            return evaluations.take().get();
+        }
+        catch(ExecutionException e){
+            if(e.getCause() instanceof JMException){
+                throw (JMException) e.getCause();
+            }
+            throw new JMException("Evaluation failed: " + e.getCause());
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while waiting for an evaluation");
+        }
+    }
+    
+    /**
+     * Returns the next offspring to evaluate. The parents are selected from 
+     * the current population and both children of the crossover are used 
+     * @return The offspring (not evaluated)
+     * @throws JMException 
+     */
+    private Solution nextOffspring() throws JMException {
+        if(!pending.isEmpty()){
+            return pending.poll();
+        }
+        Solution[] parents = new Solution[2];
+        parents[0] = (Solution) algorithm.tournmentSelOperator.execute(algorithm.population);
+        parents[1] = (Solution) algorithm.tournmentSelOperator.execute(algorithm.population);
+        Solution[] offSpring = (Solution[]) algorithm.crossoverOperator.execute(parents);
+        algorithm.mutationOperator.execute(offSpring[0]);
+        algorithm.mutationOperator.execute(offSpring[1]);
+        pending.add(offSpring[1]);
+        return offSpring[0];
+    }
+    
+    /**
+     * Inserts an evaluated offspring in the population and removes one 
+     * solution. The offspring is only compared with the strictly 
+     * non-dominated solutions: a solution dominated by a dominated solution is 
+     * also dominated by a non-dominated one, and removing a dominated solution
+     * does not change the non-dominated set. As in 
+     * <code>StrictlyNonDominatedSet</code>, a non-dominated solution identical 
+     * to the offspring in the objective space becomes dominated.
+     * @param offspring Evaluated offspring
+     */
+    private void insert(Solution offspring) {
+        boolean isDominated = false;
+        int k = 0;
+        while(k < nonDominated.size()){
+            Solution solution = nonDominated.get(k);
+            int flag = constraint.compare(solution, offspring);
+            if(flag == 0){
+                flag = dominance.compare(solution, offspring);
+            }
+            if(flag == -1){
+                isDominated = true;
+                break;
+            }
+            if(flag == 1 || isEqual(solution, offspring)){
+                dominated.add(solution);
+                removeAt(nonDominated, k);
+            }
+            else{
+                k++;
+            }
+        }
+        if(isDominated){
+            dominated.add(offspring);
+        }
+        else{
+            nonDominated.add(offspring);
+        }
+        
+        // Remove a dominated solution if there is one. Otherwise, remove a 
+        // non-dominated solution (keeping the extremes if useExtremeElitism)
+        Solution removed;
+        if(!dominated.isEmpty()){
+            removed = removeWorst(dominated, null);
+        }
+        else if(algorithm.useExtremeElitism){
+            removed = removeWorst(nonDominated, getExtremes());
+        }
+        else{
+            removed = removeWorst(nonDominated, null);
+        }
+        // The offspring takes the place of the removed solution (if it is not
+        // the offspring itself)
+        for(int i = 0; i < algorithm.population.size(); i++){
+            if(algorithm.population.get(i) == removed){
+                algorithm.population.replace(i, offspring);
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Reverse tournament: the worst of <code>tournamentSize</code> different 
+     * random solutions of the list is removed from it (swapping it with the 
+     * last solution of the list)
+     * @param solutionList Candidates to removal
+     * @param kept Solutions that can not be removed (or null)
+     * @return The removed solution
+     */
+    private Solution removeWorst(List<Solution> solutionList, Map<Solution, Boolean> kept) {
+        int available = solutionList.size();
+        if(kept != null && kept.size() < available){
+            available -= kept.size();
+        }
+        else{
+            kept = null;
+        }
+        int size = Math.min(tournamentSize, available);
+        int[] candidates = new int[size];
+        int worst = -1;
+        for(int i = 0; i < size; i++){
+            int index;
+            do{
+                index = algorithm.random.nextInt(0, solutionList.size() - 1);
+            } while(contains(candidates, i, index) || 
+                    (kept != null && kept.containsKey(solutionList.get(index))));
+            candidates[i] = index;
+            if(worst == -1 || comparator.compare(solutionList.get(index), solutionList.get(worst)) > 0){
+                worst = index;
+            }
+        }
+        Solution removed = solutionList.get(worst);
+        removeAt(solutionList, worst);
+        return removed;
+    }
+    
+    /**
+     * @return The non-dominated solutions with the smallest value of each 
+     * objective
+     */
+    private Map<Solution, Boolean> getExtremes() {
+        Map<Solution, Boolean> extremes = new IdentityHashMap<>();
+        for(int j = 0; j < problem.getNumberOfObjectives(); j++){
+            Solution bestSolution = null;
+            double min = Double.MAX_VALUE;
+            for(Solution solution : nonDominated){
+                if(solution.getObjective(j) < min){
+                    min = solution.getObjective(j);
+                    bestSolution = solution;
+                }
+            }
+            if(bestSolution != null){
+                extremes.put(bestSolution, Boolean.TRUE);
+            }
+        }
+        return extremes;
+    }
+    
+    private static boolean isEqual(Solution a, Solution b) {
+        for(int j = 0; j < a.getNumberOfObjectives(); j++){
+            if(a.getObjective(j) != b.getObjective(j)){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean contains(int[] array, int length, int value) {
+        for(int i = 0; i < length; i++){
+            if(array[i] == value){
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Removes the k-th solution of the list in O(1), replacing it by the last one
+     */
+    private static void removeAt(List<Solution> solutionList, int k) {
+        int last = solutionList.size() - 1;
+        solutionList.set(k, solutionList.get(last));
+        solutionList.remove(last);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import jmetal.core.SolutionSet;
+import jmetal.util.JMException;
+
+/**
+ * Condition that stops a run of <code>Weips</code> before the maximum number
+ * of evaluations. The conditions are checked after every generation (every
+ * <code>populationSize</code> evaluations in steady-state runs).
+ * @author luiz
+ */
+public interface StoppingCondition {
+    
+    /**
+     * Called when the run starts, after the initial population is created
+     */
+    void start();
+    
+    /**
+     * Checks the condition at the end of a generation
+     * @param metrics Metrics of the generation (only the generation, the 
+     * number of evaluations and the front size are measured in steady-state
+     * runs)
+     * @param population Current population
+     * @return True if the run must stop
+     * @throws JMException 
+     */
+    boolean isMet(GenerationMetrics metrics, SolutionSet population) throws JMException;
+    
+    /**
+     * @return The name reported in the output parameter 
+     * <code>stoppingCondition</code> when the condition stops the run
+     */
+    String getName();
+}
@@ -23,8 +23,9 @@
  */
 package jmetal.metaheuristics.weips;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import jmetal.util.PseudoRandom;
 
 /**
  *
@@ -41,21 +42,30 @@ public class StratGrips extends Grips {
 
     @Override
     protected List<double[]> getWeightMatrix(int numObjectives, int numWeights) {
-        List<double[]> weightMatrix = super.getWeightMatrix(numObjectives, numWeights);
+        // The stratified weights are random, so they are stored
+        List<double[]> lattice = super.getWeightMatrix(numObjectives, numWeights);
+        List<double[]> weightMatrix = new ArrayList<>(lattice.size());
         
-        for(double[] weightArray : weightMatrix) {
+        for(double[] latticePoint : lattice) {
+            double[] weightArray = Arrays.copyOf(latticePoint, latticePoint.length);
             double sumWeights = 0;
             for(int i = 0; i< weightArray.length; i++){
-                weightArray[i] *= PseudoRandom.randDouble();
+                weightArray[i] *= randomWeight();
                 sumWeights += weightArray[i];
             }
             for(int i = 0; i< weightArray.length; i++){
                 weightArray[i] /= sumWeights;
             }
+            weightMatrix.add(weightArray);
         }
         return weightMatrix;
     }
     
+    @Override
+    protected boolean hasRandomWeights() {
+        return true;
+    }
+    
     @Override 
     public String getName() {
         return "StratGrips" ;
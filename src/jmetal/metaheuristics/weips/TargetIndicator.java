@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import jmetal.core.SolutionSet;
+import jmetal.qualityIndicator.QualityIndicator;
+
+/**
+ * Stops the run when a quality indicator of the population reaches a target
+ * value (greater or equal for the hypervolume, smaller or equal for the 
+ * other indicators).
+ * @author luiz
+ */
+public class TargetIndicator implements StoppingCondition {
+    
+    /** Indicators computed by <code>QualityIndicator</code> */
+    public enum Indicator {
+        HYPERVOLUME, GD, IGD, EPSILON, SPREAD
+    }
+    
+    private final QualityIndicator indicators;
+    private final Indicator indicator;
+    private final double target;
+
+    /**
+     * Constructor
+     * @param indicators Quality indicators of the problem
+     * @param indicator Indicator compared with the target
+     * @param target Target value
+     */
+    public TargetIndicator(QualityIndicator indicators, Indicator indicator, double target) {
+        this.indicators = indicators;
+        this.indicator = indicator;
+        this.target = target;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public boolean isMet(GenerationMetrics metrics, SolutionSet population) {
+        switch(indicator){
+            case HYPERVOLUME:
+                return indicators.getHypervolume(population) >= target;
+            case GD:
+                return indicators.getGD(population) <= target;
+            case IGD:
+                return indicators.getIGD(population) <= target;
+            case EPSILON:
+                return indicators.getEpsilon(population) <= target;
+            default:
+                return indicators.getSpread(population) <= target;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "targetIndicator";
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import jmetal.core.SolutionSet;
+
+/**
+ * Stops the run when its wall-clock time exceeds a budget. The time is 
+ * counted from the end of the initialization.
+ * @author luiz
+ */
+public class TimeBudget implements StoppingCondition {
+    
+    // Budget in nanoseconds
+    private final long budget;
+    private long startTime;
+
+    /**
+     * Constructor
+     * @param milliseconds Wall-clock budget in milliseconds
+     */
+    public TimeBudget(long milliseconds) {
+        this.budget = milliseconds * 1000000L;
+    }
+
+    @Override
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public boolean isMet(GenerationMetrics metrics, SolutionSet population) {
+        return System.nanoTime() - startTime >= budget;
+    }
+
+    @Override
+    public String getName() {
+        return "maxTime";
+    }
+}
@@ -26,7 +26,6 @@ package jmetal.metaheuristics.weips;
 import java.util.ArrayList;
 import java.util.List;
 import jmetal.core.Problem;
-import jmetal.util.PseudoRandom;
 
 /**
  *
@@ -49,7 +48,7 @@ public class Unpas extends Weips {
             double sum = 0;
             double[] weightArray = new double[numObjectives];
             for(int j = 0; j < numObjectives; j++){
-                weightArray[j] = PseudoRandom.randDouble();
+                weightArray[j] = randomWeight();
                 sum += weightArray[j];
             }
             // Normalize the weights to sum to one
@@ -61,6 +60,11 @@ public class Unpas extends Weips {
         return weightMatrix;
     }
     
+    @Override
+    protected boolean hasRandomWeights() {
+        return true;
+    }
+    
     @Override 
     public String getName() {
         return "Unpas" ;
@@ -0,0 +1,239 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.metaheuristics.weips;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jmetal.util.SimplexLattice;
+
+/**
+ * Process-wide cache of weight matrices, shared by all the runs. A matrix is
+ * identified by a key (generator, number of objectives, number of weights 
+ * and, for random weights, the seed) and is created once. The cached 
+ * matrices are read-only and are released by the garbage collector only 
+ * when memory is needed.
+ * 
+ * When a directory is given, the matrices are also stored in files, so the 
+ * runs of other processes (and later studies) read the same matrix instead of
+ * creating it. A file is mapped in memory. Small matrices (at most 
+ * <code>SimplexLattice.MAX_STORED_COORDINATES</code> weights) are copied to 
+ * the rows of the matrix once, when the file is loaded, so reading a row does
+ * not allocate. Larger matrices are read from the mapped file, whose pages 
+ * are shared by the processes, and each row read is a new array (as the rows
+ * of a lattice built on demand). File format (little-endian): magic, version, number of rows, number of columns 
+ * and the weights, row by row.
+ * @author luiz
+ */
+class WeightMatrixCache {
+    
+    private static final int MAGIC = 0x57544D58; // "WTMX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    
+    private static final WeightMatrixCache INSTANCE = new WeightMatrixCache();
+    
+    // Matrix of each key (the slot is the lock of its key)
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a weight matrix when it is not cached
+     */
+    interface Generator {
+        List<double[]> create();
+    }
+    
+    private static class Slot {
+        SoftReference<List<double[]>> matrix;
+    }
+    
+    private WeightMatrixCache() {
+    }
+    
+    static WeightMatrixCache getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Returns the matrix of a key, creating it (or reading it from the 
+     * directory) if needed
+     * @param key Identifier of the matrix (also used as the file name)
+     * @param directory Directory of the mapped files (null to keep the 
+     * matrices only in memory)
+     * @param generator Creates the matrix
+     * @return The read-only matrix (the arrays must not be changed)
+     */
+    List<double[]> get(String key, File directory, Generator generator) {
+        Slot slot = slots.get(key);
+        if(slot == null){
+            slots.putIfAbsent(key, new Slot());
+            slot = slots.get(key);
+        }
+        synchronized(slot){
+            List<double[]> matrix = slot.matrix == null ? null : slot.matrix.get();
+            if(matrix == null){
+                matrix = load(key, directory, generator);
+                slot.matrix = matrix == null ? null : new SoftReference<>(matrix);
+            }
+            return matrix;
+        }
+    }
+    
+    /**
+     * Reads the file of the matrix, creating it first if it does not exist. 
+     * Without a directory (or if the file can not be used), the matrix is 
+     * created and kept in memory
+     */
+    private List<double[]> load(String key, File directory, Generator generator) {
+        List<double[]> matrix = null;
+        if(directory != null){
+            File file = new File(directory, key + ".weights");
+            try{
+                if(!file.exists()){
+                    matrix = generator.create();
+                    // Lattices built on demand are already compact
+                    if(matrix == null || 
+                            (matrix instanceof SimplexLattice && !((SimplexLattice) matrix).isStored())){
+                        return matrix;
+                    }
+                    write(matrix, file);
+                }
+                return read(file);
+            }
+            catch(IOException e){
+                Logger.getLogger(WeightMatrixCache.class.getName()).log(Level.WARNING, 
+                        "The weight matrix " + file + " could not be used", e);
+            }
+        }
+        if(matrix == null){
+            matrix = generator.create();
+        }
+        return matrix == null ? null : Collections.unmodifiableList(matrix);
+    }
+    
+    /**
+     * Writes a matrix to a temporary file and moves it to its name, so other 
+     * processes never see an incomplete file
+     */
+    private static void write(List<double[]> matrix, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        int columns = matrix.isEmpty() ? 0 : matrix.get(0).length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 8 * matrix.size() * columns)
+                                      .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(matrix.size()).putInt(columns);
+        for(double[] row : matrix){
+            for(int j = 0; j < columns; j++){
+                buffer.putDouble(row[j]);
+            }
+        }
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+        try{
+            try(FileOutputStream out = new FileOutputStream(tmpFile)){
+                out.write(buffer.array());
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally{
+            tmpFile.delete();
+        }
+    }
+    
+    private static List<double[]> read(File file) throws IOException {
+        try(RandomAccessFile input = new RandomAccessFile(file, "r")){
+            MappedByteBuffer buffer = input.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, input.length());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(input.length() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+                throw new IOException(file + " is not a weight matrix file");
+            }
+            int rows = buffer.getInt(8);
+            int columns = buffer.getInt(12);
+            if(input.length() != HEADER_SIZE + 8L * rows * columns){
+                throw new IOException(file + " is truncated");
+            }
+            buffer.position(HEADER_SIZE);
+            DoubleBuffer weights = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            if((long) rows * columns > SimplexLattice.MAX_STORED_COORDINATES){
+                return new MappedMatrix(weights, rows, columns);
+            }
+            double[][] matrix = new double[rows][columns];
+            for(double[] row : matrix){
+                weights.get(row);
+            }
+            return Collections.unmodifiableList(Arrays.asList(matrix));
+        }
+    }
+    
+    /**
+     * Read-only matrix backed by a mapped file. The rows are read with 
+     * absolute gets, so the matrix can be shared by several threads
+     */
+    private static class MappedMatrix extends AbstractList<double[]> implements RandomAccess {
+        private final DoubleBuffer weights;
+        private final int rows;
+        private final int columns;
+        
+        MappedMatrix(DoubleBuffer weights, int rows, int columns) {
+            this.weights = weights;
+            this.rows = rows;
+            this.columns = columns;
+        }
+        
+        @Override
+        public double[] get(int index) {
+            if(index < 0 || index >= rows){
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + rows);
+            }
+            double[] row = new double[columns];
+            int offset = index * columns;
+            for(int j = 0; j < columns; j++){
+                row[j] = weights.get(offset + j);
+            }
+            return row;
+        }
+        
+        @Override
+        public int size() {
+            return rows;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package jmetal.metaheuristics.weips;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.FileHandler;
 import java.util.logging.Logger;
 import jmetal.core.*;
 import jmetal.operators.crossover.CrossoverFactory;
 import jmetal.operators.mutation.MutationFactory;
+import jmetal.operators.crossover.BatchSBXCrossover;
+import jmetal.operators.mutation.BatchPolynomialMutation;
 import jmetal.operators.selection.Tournament;
 import jmetal.problems.ProblemFactory;
 import jmetal.problems.ZDT.ZDT3;
+import jmetal.qualityIndicator.FastQualityIndicator;
 import jmetal.qualityIndicator.QualityIndicator;
+import jmetal.util.ColumnarFile;
 import jmetal.util.Configuration;
 import jmetal.util.Distance;
+import jmetal.util.EvaluationCache;
 import jmetal.util.JMException;
-import jmetal.util.Ranking;
+import jmetal.util.PopulationBuffer;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.PseudoRandomGenerator;
+import jmetal.util.SplitMixRandomGenerator;
+import jmetal.util.StrictlyNonDominatedArchive;
 import jmetal.util.StrictlyNonDominatedSet;
+import jmetal.util.ThreadLocalRandomGenerator;
+import jmetal.util.comparators.OverallConstraintViolationComparator;
 import jmetal.util.comparators.WeipsComparator;
+import jmetal.util.parallel.Evaluator;
+import jmetal.util.parallel.ForkJoinEvaluator;
+import jmetal.util.parallel.ProcessEvaluator;
 
 /**
  *
@@ -32,12 +52,107 @@ public abstract class Weips extends Algorithm {
     public static String p_numWeights = "numWeights";
     public static String p_tournamentSize = Tournament.p_tournamentSize;
     public static String p_extremesElitism = "extremesElitism";
+    public static String p_numberOfThreads = "numberOfThreads";
+    public static String p_evaluationPool = "evaluationPool";
+    public static String p_scoreMatrix = "scoreMatrix";
+    public static String p_steadyState = "steadyState";
+    public static String p_flatPopulation = "flatPopulation";
+    public static String p_seed = "seed";
+    public static String p_checkpointFile = "checkpointFile";
+    public static String p_checkpointInterval = "checkpointInterval";
+    public static String p_weightCacheDirectory = "weightCacheDirectory";
+    public static String p_stoppingConditions = "stoppingConditions";
+    public static String p_maxTime = "maxTime";
+    public static String p_stagnationWindow = "stagnationWindow";
+    public static String p_stagnationTolerance = "stagnationTolerance";
+    public static String p_targetHypervolume = "targetHypervolume";
+    public static String p_frontFile = "frontFile";
+    public static String p_frontInterval = "frontInterval";
+    public static String p_evaluationCacheSize = "evaluationCacheSize";
+    public static String p_cacheHitsAreEvaluations = "cacheHitsAreEvaluations";
+    public static String p_numberOfIslands = "numberOfIslands";
+    public static String p_migrationInterval = "migrationInterval";
+    public static String p_numberOfMigrants = "numberOfMigrants";
+    public static String p_evaluator = "evaluator";
+    public static String p_workerCommand = "workerCommand";
+    public static String p_workerTimeout = "workerTimeout";
+    public static String p_binaryOutput = "binaryOutput";
+    public static String p_printFront = "printFront";
     
     public static String po_distributionIndex = "distributionIndex";
     public static String po_probability = "probability";
     
     protected Tournament tournmentSelOperator = null;
+    protected WeipsComparator weipsComparator = null;
+    protected boolean useScoreMatrix = false;
+    // Index of each solution of the population in the set bound to the 
+    // comparator (null if the score matrix is not used)
+    private int[] populationIndexes = null;
     protected boolean useExtremeElitism = false;
+    protected boolean useSteadyState = false;
+    protected Evaluator evaluator = null;
+    // False if the evaluator was given (and is shut down by its owner)
+    private boolean ownsEvaluator = true;
+    // Evaluations of repeated decision vectors (null if disabled)
+    protected EvaluationCache evaluationCache = null;
+    protected boolean cacheHitsAreEvaluations = true;
+    
+    protected SolutionSet population;
+    protected StrictlyNonDominatedArchive archive;
+    protected int populationSize;
+    protected int maxEvaluations;
+    protected int evaluations;
+    protected Operator mutationOperator;
+    protected Operator crossoverOperator;
+    
+    // Generator of the run when a seed or a checkpoint is used or other runs
+    // are running (also used by PseudoRandom in the thread of the run)
+    protected SplitMixRandomGenerator randomGenerator = null;
+    protected long seed;
+    
+    // Generator of the run: randomGenerator or PseudoRandom
+    protected IRandomGenerator random = new PseudoRandomGenerator();
+    
+    // True if the seed was given or is saved in a checkpoint
+    private boolean seeded;
+    
+    // Number of runs being executed in the process
+    private static final AtomicInteger runningRuns = new AtomicInteger();
+    
+    // Generator of the random weights of seeded runs (null otherwise)
+    private SplitMixRandomGenerator weightGenerator = null;
+    
+    private final List<GenerationListener> listeners = new ArrayList<>();
+    // Metrics of the current generation (null if there are no listeners)
+    private GenerationMetrics metrics = null;
+    
+    // Stopping conditions of the run (besides the maximum number of evaluations)
+    private List<StoppingCondition> stoppingConditions;
+    // Name of the condition that stopped the run
+    private String stoppingCondition;
+    
+    // Island model running this algorithm (null if it is not an island)
+    private IslandModel islandModel = null;
+    private int islandIndex;
+    
+    // Writer of the front snapshots (null if they are not written)
+    private FrontWriter frontWriter = null;
+    private int frontInterval;
+    
+    // Flat storage of the population and the offspring (null if the 
+    // solutions are allocated in each generation)
+    private PopulationBuffer populationBuffer = null;
+    // Sets reused by the generations when the population buffer is used
+    private SolutionSet offspring;
+    private SolutionSet union;
+    private List<Solution> batch;
+    // Operators applied to the whole mating pool in the population buffer 
+    // (null if the operators are applied to each pair)
+    private BatchSBXCrossover batchCrossover = null;
+    private BatchPolynomialMutation batchMutation = null;
+    // Slots of the mating pool and of the offspring
+    private int[] parentSlots;
+    private int[] childSlots;
     
     /**
      * Constructor
@@ -51,22 +166,205 @@ public abstract class Weips extends Algorithm {
         int numberOfObjectives = problem_.getNumberOfObjectives();
         int numberWeights = (Integer) getInputParameter(p_numWeights);
         
-        HashMap  parameters = new HashMap();
+        HashMap<String, Object>  parameters = new HashMap<>();
         parameters.put(Tournament.p_tournamentSize, (Integer) getInputParameter(p_tournamentSize)) ;
-        parameters.put(Tournament.p_comparator, new WeipsComparator(getWeightMatrix(numberOfObjectives, numberWeights)));
+        List<double[]> weightMatrix = getCachedWeightMatrix(numberOfObjectives, numberWeights);
+        if(islandModel != null && weightMatrix != null && isWeightLattice()){
+            weightMatrix = getIslandRegion(weightMatrix);
+        }
+        weipsComparator = new WeipsComparator(new OverallConstraintViolationComparator(), weightMatrix, random);
+        parameters.put(Tournament.p_comparator, weipsComparator);
+        if(randomGenerator != null){
+            parameters.put(Tournament.p_randomGenerator, randomGenerator);
+        }
         
         tournmentSelOperator = new Tournament(parameters);
         if(getInputParameter(p_extremesElitism) != null){
             useExtremeElitism = (Boolean) getInputParameter(p_extremesElitism);
         }
+        // Asynchronous steady-state replacement instead of generations
+        if(getInputParameter(p_steadyState) != null){
+            useSteadyState = (Boolean) getInputParameter(p_steadyState);
+        }
+        // Weighted sums read from a score matrix (only for fixed weight matrices
+        // and generations, as the steady-state population changes at each step)
+        if(getInputParameter(p_scoreMatrix) != null){
+            useScoreMatrix = !useSteadyState && (Boolean) getInputParameter(p_scoreMatrix);
+        }
+        // The offspring are evaluated in parallel if a pool or a number of threads 
+        // is given, or by worker processes if a command is given
+        ownsEvaluator = true;
+        int numberOfThreads = getInputParameter(p_numberOfThreads) == null ? 
+                1 : (Integer) getInputParameter(p_numberOfThreads);
+        if(getInputParameter(p_evaluator) != null){
+            evaluator = (Evaluator) getInputParameter(p_evaluator);
+            ownsEvaluator = false;
+        }
+        else if(getInputParameter(p_workerCommand) != null){
+            long timeout = getInputParameter(p_workerTimeout) == null ? 
+                    0 : ((Number) getInputParameter(p_workerTimeout)).longValue();
+            List<String> command = Arrays.asList(((String) getInputParameter(p_workerCommand)).trim().split("\\s+"));
+            evaluator = new ProcessEvaluator(problem_, command, numberOfThreads, timeout);
+        }
+        else if(getInputParameter(p_evaluationPool) != null){
+            evaluator = new ForkJoinEvaluator(problem_, (ForkJoinPool) getInputParameter(p_evaluationPool));
+        }
+        else{
+            evaluator = new ForkJoinEvaluator(problem_, numberOfThreads);
+        }
+        // Solutions with the same variables as a recent one are not evaluated
+        evaluationCache = null;
+        if(getInputParameter(p_evaluationCacheSize) != null && 
+                (Integer) getInputParameter(p_evaluationCacheSize) > 0){
+            evaluationCache = new EvaluationCache((Integer) getInputParameter(p_evaluationCacheSize));
+            if(getInputParameter(p_cacheHitsAreEvaluations) != null){
+                cacheHitsAreEvaluations = (Boolean) getInputParameter(p_cacheHitsAreEvaluations);
+            }
+        }
     }
     
     public abstract String getName();
     
+    /**
+     * Adds a listener notified at the end of every generation. The metrics of
+     * the generations are only measured if there are listeners
+     * @param listener The listener
+     */
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Removes a listener added by <code>addGenerationListener</code>
+     * @param listener The listener
+     */
+    public void removeGenerationListener(GenerationListener listener) {
+        listeners.remove(listener);
+    }
+    
     public abstract String getDescription();
     
     protected abstract List<double[]> getWeightMatrix(int numberOfObjectives, int numberWeights);
     
+    /**
+     * @return True if the weight matrix is random (created with 
+     * <code>randomWeight</code>)
+     */
+    protected boolean hasRandomWeights() {
+        return false;
+    }
+    
+    /**
+     * @return True if the weight matrix is a lattice of the weight space. In
+     * the island mode, each island uses a region of the lattice (the other 
+     * islands draw their own weights)
+     */
+    protected boolean isWeightLattice() {
+        return false;
+    }
+    
+    /**
+     * Returns the region of the weight matrix of an island: a block of 
+     * consecutive rows (consecutive points of a lattice are close in the 
+     * weight space)
+     * @param weightMatrix Weight matrix
+     * @return The rows of the island
+     */
+    private List<double[]> getIslandRegion(List<double[]> weightMatrix) {
+        int numberOfIslands = islandModel.getNumberOfIslands();
+        if(weightMatrix.size() < numberOfIslands){
+            int row = islandIndex % weightMatrix.size();
+            return weightMatrix.subList(row, row + 1);
+        }
+        int from = (int) ((long) weightMatrix.size() * islandIndex / numberOfIslands);
+        int to = (int) ((long) weightMatrix.size() * (islandIndex + 1) / numberOfIslands);
+        return weightMatrix.subList(from, to);
+    }
+    
+    /**
+     * Creates an island of the island mode: a copy of this algorithm with its
+     * share of the population and of the evaluations
+     * @param model Island model
+     * @param index Index of the island
+     * @param islandSeed Seed of the island
+     * @return The island
+     * @throws JMException If the algorithm can not be copied
+     */
+    Weips createIsland(IslandModel model, int index, long islandSeed) throws JMException {
+        Weips island;
+        try{
+            island = getClass().getConstructor(Problem.class).newInstance(problem_);
+        }
+        catch(ReflectiveOperationException e){
+            throw new JMException("Can not create the islands of " + getClass().getName() + ": " + e);
+        }
+        for(Map.Entry<String, Object> parameter : inputParameters_.entrySet()){
+            island.setInputParameter(parameter.getKey(), parameter.getValue());
+        }
+        for(Map.Entry<String, Operator> operator : operators_.entrySet()){
+            island.addOperator(operator.getKey(), operator.getValue());
+        }
+        int numberOfIslands = model.getNumberOfIslands();
+        // Share of the population (even, as the offspring are created in pairs)
+        int islandPopulation = ((Integer) getInputParameter(p_populationSize) + numberOfIslands - 1) / numberOfIslands;
+        island.setInputParameter(p_populationSize, Math.max(2, islandPopulation + islandPopulation % 2));
+        island.setInputParameter(p_maxEvaluations, (Integer) getInputParameter(p_maxEvaluations) / numberOfIslands);
+        island.setInputParameter(p_seed, islandSeed);
+        // The islands run in parallel, so each one evaluates sequentially 
+        // (unless a pool is shared)
+        island.setInputParameter(p_numberOfThreads, 1);
+        island.setInputParameter(p_numberOfIslands, null);
+        island.setInputParameter(p_frontFile, null);
+        island.islandModel = model;
+        island.islandIndex = index;
+        return island;
+    }
+    
+    /**
+     * Random number used to create random weight matrices. In seeded runs, 
+     * the weights have a generator of their own, so they depend only on the 
+     * seed (and can be cached)
+     * @return A uniform random number in [0, 1)
+     */
+    protected double randomWeight() {
+        if(weightGenerator != null){
+            return weightGenerator.nextDouble();
+        }
+        return random.nextDouble();
+    }
+    
+    /**
+     * Returns the weight matrix from the process-wide cache (and the files of
+     * p_weightCacheDirectory, if given). Random matrices are only cached in
+     * seeded runs
+     */
+    private List<double[]> getCachedWeightMatrix(final int numberOfObjectives, final int numberWeights) {
+        String key = getClass().getName() + "_M" + numberOfObjectives + "_W" + numberWeights;
+        if(hasRandomWeights()){
+            if(!seeded){
+                return getWeightMatrix(numberOfObjectives, numberWeights);
+            }
+            key += "_S" + seed;
+        }
+        String directory = (String) getInputParameter(p_weightCacheDirectory);
+        return WeightMatrixCache.getInstance().get(key, directory == null ? null : new File(directory), 
+                                                   new WeightMatrixCache.Generator() {
+            @Override
+            public List<double[]> create() {
+                if(hasRandomWeights()){
+                    // Stream independent of the one of the run
+                    weightGenerator = new SplitMixRandomGenerator(new SplitMixRandomGenerator(seed).nextLong());
+                }
+                try{
+                    return getWeightMatrix(numberOfObjectives, numberWeights);
+                }
+                finally{
+                    weightGenerator = null;
+                }
+            }
+        });
+    }
+    
     /**   
      * Runs the WeiPS algorithm.
      * @return a <code>SolutionSet</code> that is a set of non dominated solutions
@@ -74,132 +372,733 @@ public abstract class Weips extends Algorithm {
      * @throws JMException 
      */
     public SolutionSet execute() throws JMException, ClassNotFoundException {
-        build();
-        
-        int populationSize;
-        int maxEvaluations;
-        int evaluations;
-
+        if(islandModel == null && getInputParameter(p_numberOfIslands) != null && 
+                (Integer) getInputParameter(p_numberOfIslands) > 1){
+            SolutionSet front = new IslandModel(this, (Integer) getInputParameter(p_numberOfIslands)).run();
+            printFront(front);
+            return front;
+        }
+        runningRuns.incrementAndGet();
+        try{
+            Checkpoint checkpoint = setUpRandomGenerator();
+            try{
+                build();
+                try{
+                    return run(checkpoint);
+                }
+                finally{
+                    if(ownsEvaluator){
+                        evaluator.shutdown();
+                    }
+                    weipsComparator.unbindSolutions();
+                }
+            }
+            finally{
+                if(randomGenerator != null){
+                    // The thread may run other runs
+                    ThreadLocalRandomGenerator.unbind();
+                }
+            }
+        }
+        finally{
+            runningRuns.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Creates the <code>SplitMixRandomGenerator</code> of the run if a seed or
+     * a checkpoint file is given or other runs are running (without a seed, 
+     * the seed is split from a process-wide generator). Otherwise, the run 
+     * draws from <code>PseudoRandom</code>, so seeding it reproduces the run.
+     * The components of the run receive the generator, and 
+     * <code>PseudoRandom</code> draws from it in the thread of the run (for 
+     * the jMetal operators) until the run ends, so concurrent runs do not 
+     * share any state. When the checkpoint file exists, the generator starts from the 
+     * seed of the checkpointed run, so <code>build</code> creates the same 
+     * weights. Checkpoints can not be combined with the options whose state 
+     * is not stored in the checkpoint (steady-state mode, cache hits not 
+     * counted as evaluations and time or stagnation stopping conditions)
+     * @return The checkpoint to resume from (null if there is none)
+     */
+    private Checkpoint setUpRandomGenerator() throws JMException, ClassNotFoundException {
+        randomGenerator = null;
+        String checkpointFile = (String) getInputParameter(p_checkpointFile);
+        Checkpoint checkpoint = null;
+        if(checkpointFile != null && getInputParameter(p_steadyState) != null && 
+                (Boolean) getInputParameter(p_steadyState)){
+            throw new JMException("Checkpoints are not supported in the steady-state mode");
+        }
+        // The checkpoint does not store the state of the cache and of the 
+        // stopping conditions, so a resumed run would not continue the same way
+        if(checkpointFile != null && getInputParameter(p_evaluationCacheSize) != null && 
+                (Integer) getInputParameter(p_evaluationCacheSize) > 0 && 
+                getInputParameter(p_cacheHitsAreEvaluations) != null && 
+                !(Boolean) getInputParameter(p_cacheHitsAreEvaluations)){
+            throw new JMException("Checkpoints are not supported when the cache hits are not evaluations");
+        }
+        if(checkpointFile != null && (getInputParameter(p_stoppingConditions) != null || 
+                getInputParameter(p_maxTime) != null || getInputParameter(p_stagnationWindow) != null)){
+            throw new JMException("Checkpoints are not supported with time or stagnation stopping conditions");
+        }
+        if(checkpointFile != null && new File(checkpointFile).exists()){
+            checkpoint = Checkpoint.read(new File(checkpointFile), problem_);
+            if(getInputParameter(p_seed) != null && 
+                    ((Number) getInputParameter(p_seed)).longValue() != checkpoint.getSeed()){
+                throw new JMException("The checkpoint " + checkpointFile + 
+                                      " was written by a run with seed " + checkpoint.getSeed());
+            }
+            seed = checkpoint.getSeed();
+        }
+        else if(getInputParameter(p_seed) != null){
+            seed = ((Number) getInputParameter(p_seed)).longValue();
+        }
+        else if(checkpointFile != null || runningRuns.get() > 1){
+            seed = SplitMixRandomGenerator.newSeed();
+        }
+        else{
+            seeded = false;
+            randomGenerator = null;
+            random = new PseudoRandomGenerator();
+            return null;
+        }
+        seeded = checkpointFile != null || getInputParameter(p_seed) != null;
+        randomGenerator = new SplitMixRandomGenerator(seed);
+        random = randomGenerator;
+        ThreadLocalRandomGenerator.bind(randomGenerator);
+        return checkpoint;
+    }
+    
+    /**
+     * Evaluates the objectives and constraints of a batch of solutions. The 
+     * variation operators are applied before the batch is evaluated, so the 
+     * random numbers are consumed in the same order for any number of threads.
+     * With the evaluation cache, only the solutions not found in the cache 
+     * are evaluated (and the hits are not counted as evaluations if 
+     * <code>cacheHitsAreEvaluations</code> is false)
+     * @param solutions Solutions to evaluate
+     * @throws JMException 
+     */
+    protected void evaluate(List<Solution> solutions) throws JMException {
+        if(evaluationCache == null){
+            evaluator.evaluate(solutions);
+            return;
+        }
+        List<Solution> misses = evaluationCache.lookup(solutions);
+        evaluator.evaluate(misses);
+        evaluationCache.store(misses);
+        int hits = solutions.size() - misses.size();
+        if(!cacheHitsAreEvaluations){
+            evaluations -= hits;
+        }
+        if(metrics != null){
+            metrics.cacheHits = hits;
+        }
+    }
+    
+    /**
+     * Main loop of the algorithm (called by <code>execute</code> after the build)
+     * @param checkpoint Checkpoint to resume from (null to start a new run)
+     */
+    private SolutionSet run(Checkpoint checkpoint) throws JMException, ClassNotFoundException {
         QualityIndicator indicators; // QualityIndicator object
         int requiredEvaluations; // Use in the example of use of the
         // indicators object (see below)
         
-        SolutionSet population;
-        SolutionSet offspringPopulation;
-        SolutionSet union;
+        Distance distance = new Distance();
+
+        //Read the parameters
+        indicators = (QualityIndicator) getInputParameter(p_indicators);
 
-        Operator mutationOperator;
-        Operator crossoverOperator;
+        requiredEvaluations = 0;
+
+        if(checkpoint == null){
+            initialize();
+        }
+        else{
+            restore(checkpoint);
+        }
         
-        Distance distance = new Distance();
+        stoppingConditions = readStoppingConditions(indicators);
+        stoppingCondition = null;
+        for(StoppingCondition condition : stoppingConditions){
+            condition.start();
+        }
+        
+        // A resumed run continues the numbering of the checkpointed run
+        int firstGeneration = checkpoint == null ? 0 : checkpoint.getGeneration();
+        String frontFile = (String) getInputParameter(p_frontFile);
+        if(frontFile != null){
+            frontWriter = new FrontWriter(new File(frontFile), firstGeneration);
+            frontInterval = 1;
+            if(getInputParameter(p_frontInterval) != null){
+                frontInterval = (Integer) getInputParameter(p_frontInterval);
+            }
+        }
+        try{
+            if(useSteadyState){
+                new SteadyStateEngine(this).run();
+            }
+            else{
+                String checkpointFile = (String) getInputParameter(p_checkpointFile);
+                Checkpoint.Writer checkpointWriter = null;
+                int checkpointInterval = 1;
+                if(checkpointFile != null){
+                    checkpointWriter = new Checkpoint.Writer(new File(checkpointFile));
+                    if(getInputParameter(p_checkpointInterval) != null){
+                        checkpointInterval = (Integer) getInputParameter(p_checkpointInterval);
+                    }
+                }
+                try{
+                    // Generations 
+                    int generation = firstGeneration;
+                    while (evaluations < maxEvaluations && stoppingCondition == null) {
+                        if(checkpointWriter != null && generation % checkpointInterval == 0){
+                            // The state is copied here and written in background
+                            checkpointWriter.write(Checkpoint.encode(seed, randomGenerator.getState(), 
+                                                                     evaluations, generation, population));
+                        }
+                        if(!listeners.isEmpty() || !stoppingConditions.isEmpty()){
+                            startMetrics(generation);
+                        }
+                        nextGeneration();
+                        if(metrics != null){
+                            checkStoppingConditions(completeMetrics());
+                        }
+                        if(isFrontWritten(generation)){
+                            writeFront(generation, archive.getFront(population));
+                        }
+                        generation++;
+                    }
+                }
+                finally{
+                    metrics = null;
+                    if(checkpointWriter != null){
+                        checkpointWriter.close();
+                    }
+                }
+                // The run is complete, there is nothing to resume
+                if(checkpointFile != null){
+                    new File(checkpointFile).delete();
+                }
+            }
+        }
+        finally{
+            if(frontWriter != null){
+                FrontWriter writer = frontWriter;
+                frontWriter = null;
+                writer.close();
+            }
+        }
 
+        // Return as output parameter the required evaluations
+        setOutputParameter("evaluations", requiredEvaluations);
+        // and the condition that stopped the run
+        setOutputParameter("stoppingCondition", stoppingCondition == null ? p_maxEvaluations : stoppingCondition);
+        if(evaluationCache != null){
+            setOutputParameter("cacheHits", evaluationCache.getHits());
+            setOutputParameter("cacheHitRate", evaluationCache.getHitRate());
+        }
+
+        // Return the first non-dominated front (known from the last 
+        // replacement, so the population is not ranked again)
+        SolutionSet front = archive.getFront(population);
+        if(islandModel == null){
+            printFront(front);
+        }
+
+        return front;
+    } 
+    
+    /**
+     * Writes the objectives of the feasible solutions of the front to 
+     * FUN_name, or to FUN_name.bin in the binary columnar format, in the 
+     * working directory (unless p_printFront is false, e.g., in the studies,
+     * which write the fronts of their own)
+     */
+    private void printFront(SolutionSet front) throws JMException {
+        if(getInputParameter(p_printFront) != null && !(Boolean) getInputParameter(p_printFront)){
+            return;
+        }
+        if(getInputParameter(p_binaryOutput) != null && (Boolean) getInputParameter(p_binaryOutput)){
+            String path = "FUN_" + getName() + ColumnarFile.EXTENSION;
+            try{
+                ColumnarFile.writeFeasibleObjectives(front, path);
+            }
+            catch(IOException e){
+                throw new JMException("Error writing the front file " + path + ": " + e);
+            }
+        }
+        else{
+            front.printFeasibleFUN("FUN_" + getName()) ;
+        }
+    }
+    
+    /**
+     * Starts measuring the metrics of a generation. The counters store their
+     * values at the start until the generation is completed
+     * @param generation Index of the generation
+     */
+    private void startMetrics(int generation) {
+        metrics = new GenerationMetrics(generation);
+        metrics.numberOfComparisons = weipsComparator.getNumberOfComparisons();
+        metrics.allocatedBytes = GenerationMetrics.currentAllocatedBytes();
+    }
+    
+    /**
+     * Creates the stopping conditions given by the input parameters
+     * @param indicators Quality indicators of the problem (may be null)
+     * @return The stopping conditions (besides the maximum number of evaluations)
+     * @throws JMException 
+     */
+    private List<StoppingCondition> readStoppingConditions(QualityIndicator indicators) throws JMException {
+        List<StoppingCondition> conditions = new ArrayList<>();
+        if(getInputParameter(p_stoppingConditions) != null){
+            conditions.addAll(Arrays.asList((StoppingCondition[]) getInputParameter(p_stoppingConditions)));
+        }
+        if(getInputParameter(p_maxTime) != null){
+            conditions.add(new TimeBudget(((Number) getInputParameter(p_maxTime)).longValue()));
+        }
+        if(getInputParameter(p_stagnationWindow) != null){
+            double tolerance = 0;
+            if(getInputParameter(p_stagnationTolerance) != null){
+                tolerance = ((Number) getInputParameter(p_stagnationTolerance)).doubleValue();
+            }
+            // The hypervolume is used when the indicators are given
+            conditions.add(new Stagnation((Integer) getInputParameter(p_stagnationWindow), tolerance, indicators));
+        }
+        if(getInputParameter(p_targetHypervolume) != null){
+            if(indicators == null){
+                throw new JMException("The target hypervolume requires the parameter " + p_indicators);
+            }
+            conditions.add(new TargetIndicator(indicators, TargetIndicator.Indicator.HYPERVOLUME, 
+                                               ((Number) getInputParameter(p_targetHypervolume)).doubleValue()));
+        }
+        return conditions;
+    }
+    
+    /**
+     * @return True if the run has stopping conditions besides the maximum 
+     * number of evaluations
+     */
+    boolean hasStoppingConditions() {
+        return !stoppingConditions.isEmpty();
+    }
+    
+    /**
+     * Checks the stopping conditions at the end of a generation, keeping the
+     * name of the first condition met
+     * @param metrics Metrics of the generation
+     * @return True if the run must stop
+     * @throws JMException 
+     */
+    boolean checkStoppingConditions(GenerationMetrics metrics) throws JMException {
+        for(StoppingCondition condition : stoppingConditions){
+            if(condition.isMet(metrics, population)){
+                stoppingCondition = condition.getName();
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @return True if a snapshot of the front is written at the end of the 
+     * given generation
+     */
+    boolean isFrontWritten(int generation) {
+        return frontWriter != null && generation % frontInterval == 0;
+    }
+    
+    /**
+     * Writes a snapshot of the front in background
+     * @param generation Generation of the snapshot
+     * @param front Non-dominated solutions of the population
+     */
+    void writeFront(int generation, List<Solution> front) {
+        frontWriter.write(generation, evaluations, front);
+    }
+    
+    /**
+     * Writes a snapshot of the front in background
+     * @param generation Generation of the snapshot
+     * @param front Non-dominated solutions of the population
+     */
+    private void writeFront(int generation, SolutionSet front) {
+        List<Solution> solutions = new ArrayList<>(front.size());
+        for (int i = 0; i < front.size(); i++) {
+            solutions.add(front.get(i));
+        }
+        writeFront(generation, solutions);
+    }
+    
+    /**
+     * Completes the metrics of the generation and notifies the listeners
+     * @return The metrics of the generation
+     */
+    private GenerationMetrics completeMetrics() {
+        GenerationMetrics completed = metrics;
+        metrics = null;
+        completed.evaluations = evaluations;
+        completed.numberOfComparisons = weipsComparator.getNumberOfComparisons() - completed.numberOfComparisons;
+        if(completed.allocatedBytes >= 0){
+            completed.allocatedBytes = GenerationMetrics.currentAllocatedBytes() - completed.allocatedBytes;
+        }
+        for(GenerationListener listener : listeners){
+            listener.generationCompleted(completed);
+        }
+        return completed;
+    }
+    
+    /**
+     * Reads the parameters and operators and creates the initial population.
+     * Must be called after <code>build</code>
+     * @throws JMException
+     * @throws ClassNotFoundException 
+     */
+    protected void initialize() throws JMException, ClassNotFoundException {
+        readParameters();
+
+        // Create the initial solutionSet
+        List<Solution> batch = new ArrayList<>(populationSize);
+        for (int i = 0; i < populationSize; i++) {
+            Solution newSolution = new Solution(problem_);
+            if(populationBuffer != null){
+                newSolution = populationBuffer.acquire(newSolution);
+            }
+            batch.add(newSolution);
+            evaluations++;
+        }
+        evaluate(batch);
+        for (Solution newSolution : batch) {
+            population.add(newSolution);
+        }
+        if(useScoreMatrix){
+            bindPopulation();
+        }
+    }
+    
+    /**
+     * Continues a run from a checkpoint: the population and the number of 
+     * evaluations are restored and then the random generator. Must be called 
+     * after <code>build</code>
+     * @param checkpoint Checkpoint of the run
+     */
+    private void restore(Checkpoint checkpoint) throws JMException {
+        readParameters();
+        
+        SolutionSet savedPopulation = checkpoint.getPopulation();
+        for (int i = 0; i < savedPopulation.size(); i++) {
+            if(populationBuffer != null){
+                population.add(populationBuffer.acquire(savedPopulation.get(i)));
+            }
+            else{
+                population.add(savedPopulation.get(i));
+            }
+        }
+        evaluations = checkpoint.getEvaluations();
+        if(useScoreMatrix){
+            bindPopulation();
+        }
+        randomGenerator.setState(checkpoint.getRandomState());
+    }
+    
+    /**
+     * Binds the population to the comparator, so the tournaments compare the
+     * solutions by their indexes
+     */
+    private void bindPopulation() {
+        weipsComparator.bindSolutions(population);
+        populationIndexes = new int[populationSize];
+        for (int i = 0; i < population.size(); i++) {
+            populationIndexes[i] = i;
+        }
+    }
+    
+    /**
+     * Selects a parent from the population by tournament
+     * @return The parent
+     */
+    private Solution selectParent() throws JMException {
+        if(useScoreMatrix){
+            return population.get(tournmentSelOperator.execute(population, populationIndexes));
+        }
+        return (Solution) tournmentSelOperator.execute(population);
+    }
+    
+    /**
+     * Reads the parameters and operators of a run and initializes its state
+     * @throws JMException 
+     */
+    private void readParameters() throws JMException {
         //Read the parameters
         populationSize = ((Integer) getInputParameter(p_populationSize)).intValue();
         maxEvaluations = ((Integer) getInputParameter(p_maxEvaluations)).intValue();
-        indicators = (QualityIndicator) getInputParameter(p_indicators);
 
         //Initialize the variables
         population = new SolutionSet(populationSize);
+        archive = new StrictlyNonDominatedArchive();
         evaluations = 0;
 
-        requiredEvaluations = 0;
-
         //Read the operators
         mutationOperator = operators_.get(p_mutation);
         crossoverOperator = operators_.get(p_crossover);
-
-        // Create the initial solutionSet
-        Solution newSolution;
-        for (int i = 0; i < populationSize; i++) {
-            newSolution = new Solution(problem_);
-            problem_.evaluate(newSolution);
-            problem_.evaluateConstraints(newSolution);
-            evaluations++;
-            population.add(newSolution);
-        }
         
-        // Generations 
-        while (evaluations < maxEvaluations) {
-            
-            // Reset the permutation array used by the tournament operator
-            tournmentSelOperator.resetPermutation(populationSize);
+        // The population and the offspring are stored in flat arrays and 
+        // recycled (only for generations and the real encoding; the other 
+        // runs allocate the solutions of each generation). The batch 
+        // operators work on these arrays, so they also use the buffer
+        boolean useBatchVariation = crossoverOperator instanceof BatchSBXCrossover && 
+                mutationOperator instanceof BatchPolynomialMutation;
+        boolean useFlatPopulation = getInputParameter(p_flatPopulation) != null && 
+                (Boolean) getInputParameter(p_flatPopulation);
+        populationBuffer = null;
+        batchCrossover = null;
+        batchMutation = null;
+        // The views of the buffer are real-encoded, so the other encodings 
+        // (e.g., ArrayReal, whose values XReal reads from the array of the 
+        // variable) can not be stored in it
+        if(!PopulationBuffer.isSupported(problem_)){
+            if(useFlatPopulation){
+                throw new JMException("The flat population requires the real encoding (the problem uses " + 
+                                      problem_.getSolutionType().getClass().getSimpleName() + ")");
+            }
+            if(useBatchVariation){
+                Configuration.logger_.warning("The batch operators require the real encoding, so they are " + 
+                                              "applied to each pair of parents");
+                useBatchVariation = false;
+            }
+        }
+        if((useFlatPopulation || useBatchVariation) && !useSteadyState){
+            populationBuffer = new PopulationBuffer(problem_, 2 * populationSize);
+            offspring = new SolutionSet(populationSize);
+            union = new SolutionSet(2 * populationSize);
+            batch = new ArrayList<>(populationSize);
+            if(useBatchVariation){
+                batchCrossover = (BatchSBXCrossover) crossoverOperator;
+                batchMutation = (BatchPolynomialMutation) mutationOperator;
+                parentSlots = new int[2 * (populationSize / 2)];
+                childSlots = new int[2 * (populationSize / 2)];
+            }
+        }
+    }
+    
+    /**
+     * Runs one generation: creates and evaluates the offspring and replaces 
+     * the population. Must be called after <code>initialize</code>
+     * @throws JMException 
+     */
+    protected void nextGeneration() throws JMException {
+        SolutionSet offspringPopulation = createOffspring();
+        if(islandModel != null){
+            offspringPopulation = islandModel.migrate(this, islandIndex, offspringPopulation);
+        }
+        replacement(offspringPopulation);
+    }
+    
+    /**
+     * Selects the parents and creates and evaluates the offspring of a 
+     * generation (while the maximum number of evaluations is not reached)
+     * @return The offspring
+     * @throws JMException 
+     */
+    protected SolutionSet createOffspring() throws JMException {
+        long start = metrics == null ? 0 : System.nanoTime();
+        // Reset the permutation array used by the tournament operator
+        tournmentSelOperator.resetPermutation(populationSize);
 
-            // Create the offSpring solutionSet      
+        // Create the offSpring solutionSet (the sets are reused with the 
+        // population buffer)
+        SolutionSet offspringPopulation;
+        List<Solution> batch;
+        if(populationBuffer != null){
+            offspringPopulation = offspring;
+            offspringPopulation.clear();
+            batch = this.batch;
+            batch.clear();
+        }
+        else{
             offspringPopulation = new SolutionSet(populationSize);
+            batch = new ArrayList<>(populationSize);
+        }
+        if(batchCrossover != null){
+            createBatchOffspring(batch);
+        }
+        else{
             Solution[] parents = new Solution[2];
             for (int i = 0; i < (populationSize / 2); i++) {
                 if (evaluations < maxEvaluations) {
                     //obtain parents
-                    parents[0] = (Solution) tournmentSelOperator.execute(population);
-                    parents[1] = (Solution) tournmentSelOperator.execute(population);
+                    parents[0] = selectParent();
+                    parents[1] = selectParent();
                     Solution[] offSpring = (Solution[]) crossoverOperator.execute(parents);
+                    if(populationBuffer != null){
+                        // The children are moved to the slots freed by the 
+                        // last replacement and mutated there
+                        offSpring[0] = populationBuffer.acquire(offSpring[0]);
+                        offSpring[1] = populationBuffer.acquire(offSpring[1]);
+                    }
                     mutationOperator.execute(offSpring[0]);
                     mutationOperator.execute(offSpring[1]);
-                    problem_.evaluate(offSpring[0]);
-                    problem_.evaluateConstraints(offSpring[0]);
-                    problem_.evaluate(offSpring[1]);
-                    problem_.evaluateConstraints(offSpring[1]);
-                    offspringPopulation.add(offSpring[0]);
-                    offspringPopulation.add(offSpring[1]);
+                    batch.add(offSpring[0]);
+                    batch.add(offSpring[1]);
                     evaluations += 2;
                 }                            
             } 
-            /******************************************************************
-             *                        Replacement Stage                       *
-             ******************************************************************/            
-            
-            // Create the solutionSet union of solutionSet and offSpring
-            union = ((SolutionSet) population).union(offspringPopulation);
-
-            // Ranking the union
-            StrictlyNonDominatedSet strictlyNDS = new StrictlyNonDominatedSet(union);
-            
-            int remain = populationSize;
-            population.clear();
-
-            if(strictlyNDS.getNonDominatedSet().size() < remain){
-                for(int k = 0; k < strictlyNDS.getNonDominatedSet().size(); k++) {
-                    population.add(strictlyNDS.getNonDominatedSet().get(k));
-                }
-                remain -= strictlyNDS.getNonDominatedSet().size();
-                tournmentSelOperator.resetPermutation(strictlyNDS.getNonDominatedSet().size());
-                for(int k = 0; k < remain; k++) {
-                    Solution selected = tournmentSelOperator.noReplacementTournament(strictlyNDS.getDominatedSet());
-                    population.add(selected);
-                }
-            }
-            else if(strictlyNDS.getNonDominatedSet().size() > populationSize){
-                // Add the extremes of the PF (only if useExtremeElitism = true)
-                if(useExtremeElitism){
-                    for(int k = 0; k < remain && k < problem_.getNumberOfObjectives(); k++) {
-                        Solution selected = getBestSolutionAtObjective(strictlyNDS.getNonDominatedSet(), k);
-                        strictlyNDS.getNonDominatedSet().remove(selected);
-                        population.add(selected);
-                        remain--;
+        }
+        if(metrics != null){
+            long now = System.nanoTime();
+            metrics.variationTime = now - start;
+            start = now;
+        }
+        // Evaluate the whole offspring batch at once
+        evaluate(batch);
+        if(metrics != null){
+            metrics.evaluationTime = System.nanoTime() - start;
+            metrics.numberOfEvaluated = batch.size();
+        }
+        for (Solution offSpring : batch) {
+            offspringPopulation.add(offSpring);
+        }
+        return offspringPopulation;
+    }
+    
+    /**
+     * Selects the whole mating pool and creates the offspring with the batch
+     * operators, which write the children in the population buffer
+     * @param batch List where the children are added
+     * @throws JMException 
+     */
+    private void createBatchOffspring(List<Solution> batch) throws JMException {
+        // As many pairs as the loop of createOffspring creates
+        int numberOfPairs = Math.min(populationSize / 2, Math.max(0, (maxEvaluations - evaluations + 1) / 2));
+        for (int k = 0; k < 2 * numberOfPairs; k++) {
+            parentSlots[k] = populationBuffer.getSlot(selectParent());
+            childSlots[k] = populationBuffer.acquireSlot();
+        }
+        double[] variables = populationBuffer.getVariables();
+        int numberOfVariables = populationBuffer.getNumberOfVariables();
+        double[] lowerBounds = populationBuffer.getLowerBounds();
+        double[] upperBounds = populationBuffer.getUpperBounds();
+        batchCrossover.execute(variables, numberOfVariables, lowerBounds, upperBounds, 
+                               parentSlots, childSlots, numberOfPairs, random);
+        batchMutation.execute(variables, numberOfVariables, lowerBounds, upperBounds, 
+                              childSlots, 2 * numberOfPairs, random);
+        for (int k = 0; k < 2 * numberOfPairs; k++) {
+            batch.add(populationBuffer.getView(childSlots[k]));
+        }
+        evaluations += 2 * numberOfPairs;
+    }
+    
+    /**
+     * Replacement stage: selects the new population from the union of the 
+     * population and the offspring
+     * @param offspringPopulation The offspring of the generation
+     * @throws JMException 
+     */
+    protected void replacement(SolutionSet offspringPopulation) throws JMException {
+        long start = metrics == null ? 0 : System.nanoTime();
+        // Create the solutionSet union of solutionSet and offSpring
+        SolutionSet union = union(offspringPopulation);
+
+        // Ranking the union (the dominated solutions of the population are 
+        // not compared again)
+        StrictlyNonDominatedSet strictlyNDS = archive.rank(union);
+        if(metrics != null){
+            long now = System.nanoTime();
+            metrics.rankingTime = now - start;
+            metrics.frontSize = strictlyNDS.getNonDominatedSet().size();
+            metrics.numberOfDominanceChecks = strictlyNDS.getNumberOfDominanceChecks();
+            start = now;
+        }
+        // The survivors (and the parents of the next generation) come from the 
+        // union, so they are compared by their indexes in the union
+        int[] nonDominatedIndexes = null;
+        int[] dominatedIndexes = null;
+        if(useScoreMatrix){
+            weipsComparator.bindSolutions(union, strictlyNDS.getObjectiveMatrix());
+            nonDominatedIndexes = strictlyNDS.getNonDominatedIndexes();
+            dominatedIndexes = strictlyNDS.getDominatedIndexes();
+        }
+        List<Solution> nonDominatedSet = strictlyNDS.getNonDominatedSet();
+
+        int remain = populationSize;
+        population.clear();
+
+        if(nonDominatedSet.size() < remain){
+            addToPopulation(nonDominatedSet, nonDominatedIndexes);
+            remain -= nonDominatedSet.size();
+            tournmentSelOperator.selectWithoutReplacement(strictlyNDS.getDominatedSet(), dominatedIndexes, 
+                                                          remain, population, populationIndexes);
+        }
+        else if(nonDominatedSet.size() > populationSize){
+            // Add the extremes of the PF (only if useExtremeElitism = true)
+            if(useExtremeElitism){
+                for(int k = 0; k < remain && k < problem_.getNumberOfObjectives(); k++) {
+                    Solution selected = getBestSolutionAtObjective(nonDominatedSet, k);
+                    int position = nonDominatedSet.indexOf(selected);
+                    nonDominatedSet.remove(position);
+                    if(useScoreMatrix){
+                        populationIndexes[population.size()] = nonDominatedIndexes[position];
+                        System.arraycopy(nonDominatedIndexes, position + 1, nonDominatedIndexes, position, 
+                                         nonDominatedSet.size() - position);
                     }
-                }
-                tournmentSelOperator.resetPermutation(strictlyNDS.getNonDominatedSet().size());
-                for(int k = 0; k < remain; k++){
-                    Solution selected = tournmentSelOperator.noReplacementTournament(strictlyNDS.getNonDominatedSet());
                     population.add(selected);
+                    remain--;
                 }
             }
-            else{
-                for(int k = 0; k < strictlyNDS.getNonDominatedSet().size(); k++) {
-                    population.add(strictlyNDS.getNonDominatedSet().get(k));
-                }
+            tournmentSelOperator.selectWithoutReplacement(nonDominatedSet, nonDominatedIndexes, 
+                                                          remain, population, populationIndexes);
+        }
+        else{
+            addToPopulation(nonDominatedSet, nonDominatedIndexes);
+        }
+        if(populationBuffer != null){
+            // The slots of the solutions discarded hold the next offspring
+            populationBuffer.retain(population);
+        }
+        archive.setPopulation(population);
+        if(metrics != null){
+            metrics.replacementTime = System.nanoTime() - start;
+        }
+    }
+    
+    /**
+     * Adds solutions of the union to the population
+     * @param solutions Solutions to add
+     * @param indexes Index of each solution in the union (null if the score 
+     * matrix is not used)
+     */
+    private void addToPopulation(List<Solution> solutions, int[] indexes) {
+        for(int k = 0; k < solutions.size(); k++) {
+            if(indexes != null){
+                populationIndexes[population.size()] = indexes[k];
             }
+            population.add(solutions.get(k));
         }
-
-        // Return as output parameter the required evaluations
-        setOutputParameter("evaluations", requiredEvaluations);
-
-        // Return the first non-dominated front
-        Ranking ranking = new Ranking(population);
-        ranking.getSubfront(0).printFeasibleFUN("FUN_" + getName()) ;
-
-        return ranking.getSubfront(0);
-    } 
+    }
+    
+    /**
+     * @param offspringPopulation The offspring of the generation
+     * @return The union of the population and the offspring (in this order)
+     */
+    private SolutionSet union(SolutionSet offspringPopulation) {
+        if(populationBuffer == null){
+            return ((SolutionSet) population).union(offspringPopulation);
+        }
+        int size = population.size() + offspringPopulation.size();
+        if(union.getMaxSize() < size){
+            // Immigrants of the island model
+            union = new SolutionSet(size);
+        }
+        union.clear();
+        for (int i = 0; i < population.size(); i++) {
+            union.add(population.get(i));
+        }
+        for (int i = 0; i < offspringPopulation.size(); i++) {
+            union.add(offspringPopulation.get(i));
+        }
+        return union;
+    }
 
     private Solution getBestSolutionAtObjective(List<Solution> solutionList, int objDim) {
         Solution bestSolution = null;
@@ -238,6 +1137,8 @@ public abstract class Weips extends Algorithm {
 //        public static FileHandler fileHandler_ ; // FileHandler object
         
         String outputDir = "/tmp/weips/";
+        // Fronts in the binary columnar format (FUN.bin and VAR.bin)
+        boolean binaryOutput = false;
 
         // Logger object and file to store log messages
         Logger logger      = Configuration.logger_ ;
@@ -252,7 +1153,7 @@ public abstract class Weips extends Algorithm {
         else if (args.length == 2) {
             Object [] params = {"Real"};
             problem = (new ProblemFactory()).getProblem(args[0],params);
-            indicators = new QualityIndicator(problem, args[1]) ;
+            indicators = new FastQualityIndicator(problem, args[1]) ;
         } // if
         else { // Default problem
             //problem = new Kursawe("Real", 3);
@@ -288,6 +1189,7 @@ public abstract class Weips extends Algorithm {
 
         // Add the indicator object to the algorithm
         algorithm.setInputParameter("indicators", indicators) ;
+        algorithm.setInputParameter(p_binaryOutput, binaryOutput) ;
 
         // Execute the Algorithm
         long initTime = System.currentTimeMillis();
@@ -296,10 +1198,18 @@ public abstract class Weips extends Algorithm {
 
         // Result messages 
         logger.info("Total execution time: "+estimatedTime + "ms");
-        logger.info("Variables values have been writen to file VAR");
-        population.printVariablesToFile(outputDir + "VAR");    
-        logger.info("Objectives values have been writen to file FUN");
-        population.printObjectivesToFile(outputDir + "FUN");
+        if(binaryOutput){
+            logger.info("Variables values have been writen to file VAR" + ColumnarFile.EXTENSION);
+            ColumnarFile.writeVariables(population, outputDir + "VAR" + ColumnarFile.EXTENSION);
+            logger.info("Objectives values have been writen to file FUN" + ColumnarFile.EXTENSION);
+            ColumnarFile.writeObjectives(population, outputDir + "FUN" + ColumnarFile.EXTENSION);
+        }
+        else{
+            logger.info("Variables values have been writen to file VAR");
+            population.printVariablesToFile(outputDir + "VAR");    
+            logger.info("Objectives values have been writen to file FUN");
+            population.printObjectivesToFile(outputDir + "FUN");
+        }
 
         if (indicators != null) {
             logger.info("Quality indicators") ;
@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.operators.crossover;
+
+import java.util.HashMap;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandomGenerator;
+
+/**
+ * SBX crossover that also crosses a whole mating pool at once. The pool is 
+ * stored in a flat matrix of decision variables (e.g., a 
+ * <code>PopulationBuffer</code>), so the loops run over primitive values 
+ * instead of <code>Variable</code> objects. Each pair is crossed exactly as 
+ * <code>SBXCrossover</code> does, and <code>execute</code> still crosses a 
+ * single pair of solutions.
+ * @author luiz
+ */
+public class BatchSBXCrossover extends SBXCrossover {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final double EPS = 1.0e-14;
+    
+    private static final double DEFAULT_PROBABILITY = 0.9;
+    
+    private static final double DEFAULT_DISTRIBUTION_INDEX = 20.0;
+    
+    private final double probability_;
+    
+    // Exponents of the spread factor, computed once
+    private final double alphaExponent_;
+    private final double betaExponent_;
+    
+    /**
+     * Constructor
+     * @param parameters Parameters of the operator (as in <code>SBXCrossover</code>)
+     */
+    public BatchSBXCrossover(HashMap<String, Object> parameters) {
+        super(parameters);
+        probability_ = parameters.get("probability") == null ? 
+                DEFAULT_PROBABILITY : (Double) parameters.get("probability");
+        double distributionIndex = parameters.get("distributionIndex") == null ? 
+                DEFAULT_DISTRIBUTION_INDEX : (Double) parameters.get("distributionIndex");
+        alphaExponent_ = -(distributionIndex + 1.0);
+        betaExponent_ = 1.0 / (distributionIndex + 1.0);
+    }
+    
+    /**
+     * Crosses the pairs of a mating pool. The children are copies of the 
+     * parents when a pair is not crossed
+     * @param variables Decision variables, one row of 
+     * <code>numberOfVariables</code> values per solution
+     * @param numberOfVariables Number of decision variables
+     * @param lowerBounds Lower bound of each variable
+     * @param upperBounds Upper bound of each variable
+     * @param parents Rows of the parents (pair k is parents[2k] and parents[2k + 1])
+     * @param children Rows of the children, in the same layout (they must 
+     * not be rows of the parents)
+     * @param numberOfPairs Number of pairs crossed
+     * @throws JMException 
+     */
+    public void execute(double[] variables, int numberOfVariables, double[] lowerBounds, double[] upperBounds,
+                        int[] parents, int[] children, int numberOfPairs) throws JMException {
+        execute(variables, numberOfVariables, lowerBounds, upperBounds, parents, children, numberOfPairs, 
+                new PseudoRandomGenerator());
+    }
+    
+    /**
+     * Crosses the pairs of a mating pool drawing from the generator of a run
+     * (the operator has no state, so it can be shared by concurrent runs)
+     * @param variables Decision variables, one row of 
+     * <code>numberOfVariables</code> values per solution
+     * @param numberOfVariables Number of decision variables
+     * @param lowerBounds Lower bound of each variable
+     * @param upperBounds Upper bound of each variable
+     * @param parents Rows of the parents (pair k is parents[2k] and parents[2k + 1])
+     * @param children Rows of the children, in the same layout (they must 
+     * not be rows of the parents)
+     * @param numberOfPairs Number of pairs crossed
+     * @param random Random generator
+     * @throws JMException 
+     */
+    public void execute(double[] variables, int numberOfVariables, double[] lowerBounds, double[] upperBounds,
+                        int[] parents, int[] children, int numberOfPairs, IRandomGenerator random) throws JMException {
+        for (int k = 0; k < numberOfPairs; k++) {
+            int x1 = parents[2 * k] * numberOfVariables;
+            int x2 = parents[2 * k + 1] * numberOfVariables;
+            int offs1 = children[2 * k] * numberOfVariables;
+            int offs2 = children[2 * k + 1] * numberOfVariables;
+            System.arraycopy(variables, x1, variables, offs1, numberOfVariables);
+            System.arraycopy(variables, x2, variables, offs2, numberOfVariables);
+            if (random.nextDouble() <= probability_) {
+                cross(variables, numberOfVariables, lowerBounds, upperBounds, x1, x2, offs1, offs2, random);
+            }
+        }
+    }
+    
+    private void cross(double[] variables, int numberOfVariables, double[] lowerBounds, double[] upperBounds,
+                       int x1, int x2, int offs1, int offs2, IRandomGenerator random) {
+        for (int i = 0; i < numberOfVariables; i++) {
+            double valueX1 = variables[x1 + i];
+            double valueX2 = variables[x2 + i];
+            if (random.nextDouble() <= 0.5) {
+                if (Math.abs(valueX1 - valueX2) > EPS) {
+                    double y1 = Math.min(valueX1, valueX2);
+                    double y2 = Math.max(valueX1, valueX2);
+                    double yL = lowerBounds[i];
+                    double yu = upperBounds[i];
+                    double rand = random.nextDouble();
+                    double c1 = 0.5 * ((y1 + y2) - betaq(rand, 1.0 + (2.0 * (y1 - yL) / (y2 - y1))) * (y2 - y1));
+                    double c2 = 0.5 * ((y1 + y2) + betaq(rand, 1.0 + (2.0 * (yu - y2) / (y2 - y1))) * (y2 - y1));
+                    if (c1 < yL) {
+                        c1 = yL;
+                    }
+                    if (c2 < yL) {
+                        c2 = yL;
+                    }
+                    if (c1 > yu) {
+                        c1 = yu;
+                    }
+                    if (c2 > yu) {
+                        c2 = yu;
+                    }
+                    if (random.nextDouble() <= 0.5) {
+                        variables[offs1 + i] = c2;
+                        variables[offs2 + i] = c1;
+                    } else {
+                        variables[offs1 + i] = c1;
+                        variables[offs2 + i] = c2;
+                    }
+                }
+            } else {
+                // The values are swapped, as in SBXCrossover
+                variables[offs1 + i] = valueX2;
+                variables[offs2 + i] = valueX1;
+            }
+        }
+    }
+    
+    /**
+     * @param rand Uniform random number
+     * @param beta Spread factor of a bound
+     * @return The spread factor of the child
+     */
+    private double betaq(double rand, double beta) {
+        double alpha = 2.0 - Math.pow(beta, alphaExponent_);
+        if (rand <= (1.0 / alpha)) {
+            return Math.pow((rand * alpha), betaExponent_);
+        }
+        return Math.pow((1.0 / (2.0 - rand * alpha)), betaExponent_);
+    }
+}
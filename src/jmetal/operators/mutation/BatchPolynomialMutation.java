@@ -0,0 +1,157 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.operators.mutation;
+
+import java.util.HashMap;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.JMException;
+import jmetal.util.PseudoRandomGenerator;
+
+/**
+ * Polynomial mutation that also mutates a whole offspring at once. The 
+ * offspring is stored in a flat matrix of decision variables (e.g., a 
+ * <code>PopulationBuffer</code>), so the loops run over primitive values 
+ * instead of <code>Variable</code> objects. Instead of drawing a number for 
+ * each variable, the gap to the next mutated variable is drawn from the 
+ * geometric distribution, so each variable is still mutated with the given 
+ * probability (and the same perturbation as <code>PolynomialMutation</code>),
+ * but only the mutated variables consume random numbers. 
+ * <code>execute</code> still mutates a single solution.
+ * @author luiz
+ */
+public class BatchPolynomialMutation extends PolynomialMutation {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final double DEFAULT_DISTRIBUTION_INDEX = 20.0;
+    
+    // PolynomialMutation takes the root with the default distribution index
+    private static final double MUTATION_POWER = 1.0 / (DEFAULT_DISTRIBUTION_INDEX + 1.0);
+    
+    private final Double probability_;
+    
+    private final double distributionIndex_;
+    
+    /**
+     * Constructor
+     * @param parameters Parameters of the operator (as in <code>PolynomialMutation</code>)
+     */
+    public BatchPolynomialMutation(HashMap<String, Object> parameters) {
+        super(parameters);
+        probability_ = (Double) parameters.get("probability");
+        distributionIndex_ = parameters.get("distributionIndex") == null ? 
+                DEFAULT_DISTRIBUTION_INDEX : (Double) parameters.get("distributionIndex");
+    }
+    
+    /**
+     * Mutates rows of a matrix of decision variables
+     * @param variables Decision variables, one row of 
+     * <code>numberOfVariables</code> values per solution
+     * @param numberOfVariables Number of decision variables
+     * @param lowerBounds Lower bound of each variable
+     * @param upperBounds Upper bound of each variable
+     * @param rows Rows mutated
+     * @param numberOfRows Number of rows mutated
+     * @throws JMException 
+     */
+    public void execute(double[] variables, int numberOfVariables, double[] lowerBounds, double[] upperBounds,
+                        int[] rows, int numberOfRows) throws JMException {
+        execute(variables, numberOfVariables, lowerBounds, upperBounds, rows, numberOfRows, 
+                new PseudoRandomGenerator());
+    }
+    
+    /**
+     * Mutates rows of a matrix of decision variables drawing from the 
+     * generator of a run (the operator has no state, so it can be shared by
+     * concurrent runs)
+     * @param variables Decision variables, one row of 
+     * <code>numberOfVariables</code> values per solution
+     * @param numberOfVariables Number of decision variables
+     * @param lowerBounds Lower bound of each variable
+     * @param upperBounds Upper bound of each variable
+     * @param rows Rows mutated
+     * @param numberOfRows Number of rows mutated
+     * @param random Random generator
+     * @throws JMException 
+     */
+    public void execute(double[] variables, int numberOfVariables, double[] lowerBounds, double[] upperBounds,
+                        int[] rows, int numberOfRows, IRandomGenerator random) throws JMException {
+        if(probability_ == null){
+            throw new JMException("The mutation probability is not set");
+        }
+        double probability = probability_;
+        if(probability <= 0 || numberOfVariables == 0){
+            return;
+        }
+        // Position of the next mutated variable among all the variables of 
+        // the rows (row by row)
+        long size = (long) numberOfRows * numberOfVariables;
+        double logComplement = Math.log1p(-probability);
+        long position = nextGap(probability, logComplement, size, random);
+        while(position < size){
+            int row = (int) (position / numberOfVariables);
+            int i = (int) (position % numberOfVariables);
+            int index = rows[row] * numberOfVariables + i;
+            variables[index] = mutate(variables[index], lowerBounds[i], upperBounds[i], random);
+            position += 1 + nextGap(probability, logComplement, size, random);
+        }
+    }
+    
+    /**
+     * @param size Maximum gap returned
+     * @return The number of variables before the next mutated one
+     */
+    private static long nextGap(double probability, double logComplement, long size, IRandomGenerator random) {
+        if(probability >= 1){
+            return 0;
+        }
+        // 1 - nextDouble() is in (0, 1], so the logarithm is finite
+        double gap = Math.floor(Math.log(1.0 - random.nextDouble()) / logComplement);
+        return gap < size ? (long) gap : size;
+    }
+    
+    private double mutate(double y, double yl, double yu, IRandomGenerator random) {
+        double delta1 = (y - yl) / (yu - yl);
+        double delta2 = (yu - y) / (yu - yl);
+        double rnd = random.nextDouble();
+        double deltaq;
+        if (rnd <= 0.5) {
+            double xy = 1.0 - delta1;
+            double val = 2.0 * rnd + (1.0 - 2.0 * rnd) * (Math.pow(xy, (distributionIndex_ + 1.0)));
+            deltaq = Math.pow(val, MUTATION_POWER) - 1.0;
+        } else {
+            double xy = 1.0 - delta2;
+            double val = 2.0 * (1.0 - rnd) + 2.0 * (rnd - 0.5) * (Math.pow(xy, (distributionIndex_ + 1.0)));
+            deltaq = 1.0 - (Math.pow(val, MUTATION_POWER));
+        }
+        y = y + deltaq * (yu - yl);
+        if (y < yl) {
+            y = yl;
+        }
+        if (y > yu) {
+            y = yu;
+        }
+        return y;
+    }
+}
@@ -28,8 +28,11 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import jmetal.core.Solution;
+import jmetal.util.IRandomGenerator;
 import jmetal.util.JMException;
+import jmetal.util.PseudoRandom;
 import jmetal.util.SolutionListUtils;
+import jmetal.util.comparators.WeipsComparator;
 
 /**
  * This class implements an binary tournament selection operator
@@ -37,6 +40,7 @@ import jmetal.util.SolutionListUtils;
 public class Tournament extends Selection {
     public static String p_tournamentSize = "tournamentSize";
     public static String p_comparator = "comparator";
+    public static String p_randomGenerator = "randomGenerator";
     
     /**
      * Stores the <code>Comparator</code> used to compare two
@@ -59,6 +63,25 @@ public class Tournament extends Selection {
      */
     private int index_ = 0;
     
+    /**
+     * pool_ stores the positions of the solutions still available in a 
+     * selection without replacement. It is reused between calls to avoid 
+     * allocations
+     */
+    private int[] pool_ = new int[0];
+    
+    /**
+     * candidates_ stores the positions of the candidates of a tournament by
+     * index
+     */
+    private int[] candidates_ = new int[0];
+    
+    /**
+     * random_ is the generator of the run (null to draw from 
+     * <code>PseudoRandom</code>)
+     */
+    private IRandomGenerator random_ = null;
+    
     /**
      * Constructor
      * Creates a new Binary tournament operator using a BinaryTournamentComparator
@@ -76,6 +99,9 @@ public class Tournament extends Selection {
             if(parameters.get(p_tournamentSize) != null){
                 tournamentSize_ = ((Integer)parameters.get(p_tournamentSize)).intValue();
             }
+            if(parameters.get(p_randomGenerator) != null){
+                random_ = (IRandomGenerator) parameters.get(p_randomGenerator);
+            }
         }
     } 
 
@@ -98,7 +124,7 @@ public class Tournament extends Selection {
             index_ ++;
             if(index_ >= solutionSet.size()){
                 index_ = 0;
-                a_= (new jmetal.util.PermutationUtility()).intPermutation(solutionSet.size());
+                a_= intPermutation(solutionSet.size());
             }
         }
         
@@ -109,14 +135,49 @@ public class Tournament extends Selection {
         return candidates.best(comparator_);
     } 
     
+    /**
+     * Performs the operation on a set whose solutions are bound to the 
+     * <code>WeipsComparator</code> of the tournament, which compares the 
+     * candidates by their indexes in the bound set. The candidates, the 
+     * winner and the random numbers drawn are the same of 
+     * <code>execute</code>
+     * @param solutionSet Set of solutions used as input for the tournament
+     * @param indexes Index of each solution of the set in the bound set
+     * @return The position of the winner in the solution set
+     */
+    public int execute(SolutionSet solutionSet, int[] indexes) {
+        WeipsComparator comparator = (WeipsComparator) comparator_;
+        if(candidates_.length < tournamentSize_){
+            candidates_ = new int[tournamentSize_];
+        }
+        for(int k = 0; k < tournamentSize_; k++){
+            candidates_[k] = a_[index_];
+            index_ ++;
+            if(index_ >= solutionSet.size()){
+                index_ = 0;
+                a_= intPermutation(solutionSet.size());
+            }
+        }
+        // Same criterion used by SolutionSet.best
+        int best = candidates_[0];
+        for(int k = 1; k < tournamentSize_; k++){
+            if(comparator.compare(indexes[best], indexes[candidates_[k]]) == 1){
+                best = candidates_[k];
+            }
+        }
+        return best;
+    }
+    
     public void resetPermutation(int solSetSize){
         index_ = 0;
-        a_= (new jmetal.util.PermutationUtility()).intPermutation(solSetSize);
+        a_= intPermutation(solSetSize);
     }
        
     /**
      * Selects one solution from the input solution set using a tournament of size 
-     * <code>tournamentSize</code> and then remove it from the set
+     * <code>tournamentSize</code> and then remove it from the set. For several 
+     * selections over the same list, <code>selectWithoutReplacement</code> 
+     * avoids the O(N) removal of each call
      * @param solutionList List of solutions used as input for the tournment
      * @return The winner of the tournment
      */
@@ -124,7 +185,7 @@ public class Tournament extends Selection {
         int tournamentSize = Math.min(tournamentSize_, solutionList.size());
                 
         if (index_ == 0) { //Create the permutation
-          a_= (new jmetal.util.PermutationUtility()).intPermutation(solutionList.size());
+          a_= intPermutation(solutionList.size());
         }
         
         SolutionSet candidates = new SolutionSet(tournamentSize);
@@ -137,7 +198,7 @@ public class Tournament extends Selection {
             }
             else{
                 index_ = 0;
-                a_= (new jmetal.util.PermutationUtility()).intPermutation(solutionList.size());
+                a_= intPermutation(solutionList.size());
             }
         }
         
@@ -151,4 +212,115 @@ public class Tournament extends Selection {
         
         return selectedSol;
     }
+    
+    /**
+     * Selects <code>numberOfSelections</code> solutions from the input list 
+     * without replacement. Each selection is a tournament among 
+     * <code>tournamentSize</code> different solutions still available (or all
+     * of them, if fewer remain) and the winner is removed from the available
+     * solutions by swapping it with the last one. The candidates are drawn by
+     * a partial Fisher-Yates shuffle over the same buffer, so the whole pass 
+     * is O(N + numberOfSelections * tournamentSize) and no objects are created
+     * after the buffer reaches the size of the list. The input list is not 
+     * modified.
+     * @param solutionList List of solutions used as input for the tournaments
+     * @param numberOfSelections Number of solutions to select
+     * @param selected Set receiving the winners (in the order of selection)
+     * @throws JMException If there are not enough solutions to select
+     */
+    public void selectWithoutReplacement(List<Solution> solutionList, int numberOfSelections, 
+                                         SolutionSet selected) throws JMException {
+        selectWithoutReplacement(solutionList, null, numberOfSelections, selected, null);
+    }
+    
+    /**
+     * Selects <code>numberOfSelections</code> solutions from the input list 
+     * without replacement, as <code>selectWithoutReplacement</code>, when the
+     * solutions are bound to the <code>WeipsComparator</code> of the 
+     * tournament. The candidates are compared by their indexes in the bound 
+     * set.
+     * @param solutionList List of solutions used as input for the tournaments
+     * @param indexes Index of each solution of the list in the bound set
+     * (null to compare the solutions with the comparator)
+     * @param numberOfSelections Number of solutions to select
+     * @param selected Set receiving the winners (in the order of selection)
+     * @param selectedIndexes Array receiving the index of each winner in the
+     * bound set, at the position of the winner in <code>selected</code> (null
+     * if not needed)
+     * @throws JMException If there are not enough solutions to select
+     */
+    @SuppressWarnings("unchecked") // The jMetal comparators are raw
+    public void selectWithoutReplacement(List<Solution> solutionList, int[] indexes, int numberOfSelections, 
+                                         SolutionSet selected, int[] selectedIndexes) throws JMException {
+        int available = solutionList.size();
+        if(numberOfSelections > available){
+            throw new JMException("The solution list size (" + available +
+                                  ") is less than the number of requested solutions (" + 
+                                  numberOfSelections + ")") ;
+        }
+        WeipsComparator comparator = indexes == null ? null : (WeipsComparator) comparator_;
+        if(pool_.length < available){
+            pool_ = new int[available];
+        }
+        for(int i = 0; i < available; i++){
+            pool_[i] = i;
+        }
+        
+        for(int k = 0; k < numberOfSelections; k++){
+            int tournamentSize = Math.min(tournamentSize_, available);
+            // Move tournamentSize different solutions to the begining of the pool
+            for(int i = 0; i < tournamentSize; i++){
+                swap(i, randInt(i, available - 1));
+            }
+            // Same criterion used by SolutionSet.best
+            int best = 0;
+            for(int i = 1; i < tournamentSize; i++){
+                int flag = comparator == null ? 
+                        comparator_.compare(solutionList.get(pool_[best]), solutionList.get(pool_[i])) : 
+                        comparator.compare(indexes[pool_[best]], indexes[pool_[i]]);
+                if(flag == 1){
+                    best = i;
+                }
+            }
+            if(selectedIndexes != null){
+                selectedIndexes[selected.size()] = indexes[pool_[best]];
+            }
+            selected.add(solutionList.get(pool_[best]));
+            available--;
+            swap(best, available);
+        }
+    }
+    
+    /**
+     * Random permutation of [0, length). Without a generator it is the one of
+     * <code>PermutationUtility</code>; with a generator, it is a Fisher-Yates
+     * shuffle (O(n) instead of the O(n^2) sort of PermutationUtility)
+     */
+    private int[] intPermutation(int length) {
+        if(random_ == null){
+            return (new jmetal.util.PermutationUtility()).intPermutation(length);
+        }
+        int[] result = new int[length];
+        for(int i = 0; i < length; i++){
+            result[i] = i;
+        }
+        for(int i = length - 1; i > 0; i--){
+            int j = random_.nextInt(0, i);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+    
+    private int randInt(int lowerBound, int upperBound) {
+        return random_ == null ? PseudoRandom.randInt(lowerBound, upperBound) : 
+                                 random_.nextInt(lowerBound, upperBound);
+    }
+    
+    private void swap(int i, int j) {
+        int aux = pool_[i];
+        pool_[i] = pool_[j];
+        pool_[j] = aux;
+    }
 } 
@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.qualityIndicator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exact hypervolume with the same normalization as <code>Hypervolume</code>,
+ * computed by algorithms specific to the number of objectives: a sort and 
+ * sweep for 2 objectives (O(N log N)), a dimension sweep keeping the 2D 
+ * staircase in a tree for 3 objectives (O(N log N)) and the WFG algorithm 
+ * for more objectives, whose exclusive volumes are computed one dimension 
+ * lower, down to the 3D sweep.
+ * @author luiz
+ */
+public class FastHypervolume {
+    
+    /**
+     * Computes the hypervolume of a front as <code>Hypervolume</code> does: 
+     * the front is normalized by the bounds of the true front and the volume 
+     * is bounded by the point (1, ..., 1) of the normalized space, where the 
+     * values outside [0, 1] are moved to the nearest bound
+     * @param paretoFront The front
+     * @param paretoTrueFront The true Pareto front
+     * @param numberOfObjectives Number of objectives
+     * @return The hypervolume of the front
+     */
+    public double hypervolume(double[][] paretoFront, double[][] paretoTrueFront, int numberOfObjectives) {
+        if(paretoFront == null || paretoFront.length == 0){
+            return 0;
+        }
+        double[] maximumValues = new double[numberOfObjectives];
+        double[] minimumValues = new double[numberOfObjectives];
+        Arrays.fill(maximumValues, -Double.MAX_VALUE);
+        Arrays.fill(minimumValues, Double.MAX_VALUE);
+        for (double[] point : paretoTrueFront) {
+            for (int j = 0; j < numberOfObjectives; j++) {
+                maximumValues[j] = Math.max(maximumValues[j], point[j]);
+                minimumValues[j] = Math.min(minimumValues[j], point[j]);
+            }
+        }
+        double[][] normalizedFront = new double[paretoFront.length][numberOfObjectives];
+        for (int i = 0; i < paretoFront.length; i++) {
+            for (int j = 0; j < numberOfObjectives; j++) {
+                double value = (paretoFront[i][j] - minimumValues[j]) / (maximumValues[j] - minimumValues[j]);
+                if(value < 0){
+                    value = 0;
+                }
+                else if(!(value <= 1)){
+                    // Values above 1 (or NaN) do not add any volume
+                    value = 1;
+                }
+                normalizedFront[i][j] = value;
+            }
+        }
+        double[] reference = new double[numberOfObjectives];
+        Arrays.fill(reference, 1.0);
+        return volume(normalizedFront, normalizedFront.length, reference);
+    }
+    
+    /**
+     * Computes the volume dominated by a set of points (to be minimized) and
+     * bounded by a reference point
+     * @param points The points (the rows are not modified)
+     * @param numberOfPoints Number of points
+     * @param reference Reference point
+     * @return The hypervolume of the points
+     */
+    public static double volume(double[][] points, int numberOfPoints, double[] reference) {
+        int numberOfObjectives = reference.length;
+        // Only the points better than the reference in every objective add
+        // some volume
+        double[][] inside = new double[numberOfPoints][];
+        int n = 0;
+        for (int i = 0; i < numberOfPoints; i++) {
+            boolean isInside = true;
+            for (int j = 0; j < numberOfObjectives && isInside; j++) {
+                isInside = points[i][j] < reference[j];
+            }
+            if(isInside){
+                inside[n++] = points[i];
+            }
+        }
+        return volume(inside, n, numberOfObjectives, reference);
+    }
+    
+    /**
+     * @param points Points better than the reference (reordered)
+     * @param n Number of points
+     * @param m Number of objectives considered (the first m)
+     * @param reference Reference point
+     * @return The hypervolume of the points in the first m objectives
+     */
+    private static double volume(double[][] points, int n, int m, double[] reference) {
+        if(n == 0){
+            return 0;
+        }
+        if(m == 1){
+            double minimum = reference[0];
+            for (int i = 0; i < n; i++) {
+                minimum = Math.min(minimum, points[i][0]);
+            }
+            return reference[0] - minimum;
+        }
+        if(m == 2){
+            return sweep2D(points, n, reference);
+        }
+        if(m == 3){
+            return sweep3D(points, n, reference);
+        }
+        return wfg(points, n, m, reference);
+    }
+    
+    /**
+     * The points are sorted by the first objective, and each point not 
+     * dominated by the previous ones adds a rectangle. O(N log N)
+     */
+    private static double sweep2D(double[][] points, int n, double[] reference) {
+        Arrays.sort(points, 0, n, lexicographic(2));
+        double volume = 0;
+        double previousY = reference[1];
+        for (int i = 0; i < n; i++) {
+            double y = points[i][1];
+            if(y < previousY){
+                volume += (reference[0] - points[i][0]) * (previousY - y);
+                previousY = y;
+            }
+        }
+        return volume;
+    }
+    
+    /**
+     * The points are visited in increasing order of the third objective. The
+     * (f1, f2) staircase of the points visited and its area are updated at 
+     * each point, and the volume grows by the area times the distance to the
+     * next point. O(N log N)
+     */
+    private static double sweep3D(double[][] points, int n, double[] reference) {
+        Arrays.sort(points, 0, n, byObjective(2));
+        // Staircase: f1 increasing and f2 strictly decreasing
+        TreeMap<Double, Double> staircase = new TreeMap<>();
+        double area = 0;
+        double volume = 0;
+        for (int i = 0; i < n; i++) {
+            double x = points[i][0];
+            double y = points[i][1];
+            Map.Entry<Double, Double> entry = staircase.floorEntry(x);
+            if(entry == null || entry.getValue() > y){
+                // The area added is split in strips at the points removed
+                entry = staircase.lowerEntry(x);
+                double stripX = x;
+                double stripTop = entry == null ? reference[1] : entry.getValue();
+                entry = staircase.ceilingEntry(x);
+                while(entry != null && entry.getValue() >= y){
+                    area += (entry.getKey() - stripX) * (stripTop - y);
+                    stripX = entry.getKey();
+                    stripTop = entry.getValue();
+                    staircase.remove(stripX);
+                    entry = staircase.higherEntry(stripX);
+                }
+                double stripEnd = entry == null ? reference[0] : entry.getKey();
+                area += (stripEnd - stripX) * (stripTop - y);
+                staircase.put(x, y);
+            }
+            double nextZ = i + 1 < n ? points[i + 1][2] : reference[2];
+            volume += area * (nextZ - points[i][2]);
+        }
+        return volume;
+    }
+    
+    /**
+     * WFG algorithm: the volume is the sum of the exclusive volumes of the 
+     * points, each one relative to the points after it. The points are 
+     * sorted in decreasing order of the last objective, so the limited 
+     * points share the last objective of the point and its exclusive volume
+     * is a product of that objective and a volume in m - 1 objectives
+     */
+    private static double wfg(double[][] points, int n, int m, double[] reference) {
+        Arrays.sort(points, 0, n, Collections.reverseOrder(byObjective(m - 1)));
+        double volume = 0;
+        double[][] limited = new double[n][];
+        for (int i = 0; i < n; i++) {
+            double[] point = points[i];
+            double inclusive = 1;
+            for (int j = 0; j < m - 1; j++) {
+                inclusive *= reference[j] - point[j];
+            }
+            // Points after the i-th one, limited by it
+            int numberOfLimited = 0;
+            for (int k = i + 1; k < n; k++) {
+                double[] limit = new double[m - 1];
+                for (int j = 0; j < m - 1; j++) {
+                    limit[j] = Math.max(point[j], points[k][j]);
+                }
+                numberOfLimited = addNondominated(limited, numberOfLimited, limit, m - 1);
+            }
+            double exclusive = inclusive - volume(limited, numberOfLimited, m - 1, reference);
+            volume += exclusive * (reference[m - 1] - point[m - 1]);
+        }
+        return volume;
+    }
+    
+    /**
+     * Adds a point to a set of points not dominated by each other, unless it 
+     * is weakly dominated by a point of the set. The points of the set 
+     * dominated by the new point are removed
+     * @return The new number of points of the set
+     */
+    private static int addNondominated(double[][] set, int size, double[] point, int m) {
+        for (int k = 0; k < size; k++) {
+            if(weaklyDominates(set[k], point, m)){
+                return size;
+            }
+        }
+        int newSize = 0;
+        for (int k = 0; k < size; k++) {
+            if(!weaklyDominates(point, set[k], m)){
+                set[newSize++] = set[k];
+            }
+        }
+        set[newSize++] = point;
+        return newSize;
+    }
+    
+    private static boolean weaklyDominates(double[] p, double[] q, int m) {
+        for (int j = 0; j < m; j++) {
+            if(p[j] > q[j]){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static Comparator<double[]> byObjective(final int objective) {
+        return new Comparator<double[]>() {
+            @Override
+            public int compare(double[] p, double[] q) {
+                return Double.compare(p[objective], q[objective]);
+            }
+        };
+    }
+    
+    private static Comparator<double[]> lexicographic(final int m) {
+        return new Comparator<double[]>() {
+            @Override
+            public int compare(double[] p, double[] q) {
+                for (int j = 0; j < m; j++) {
+                    int flag = Double.compare(p[j], q[j]);
+                    if(flag != 0){
+                        return flag;
+                    }
+                }
+                return 0;
+            }
+        };
+    }
+}
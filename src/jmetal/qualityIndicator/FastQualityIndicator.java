@@ -0,0 +1,62 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.qualityIndicator;
+
+import jmetal.core.Problem;
+import jmetal.core.SolutionSet;
+
+/**
+ * <code>QualityIndicator</code> whose hypervolume is computed by 
+ * <code>FastHypervolume</code> (the other indicators are not changed)
+ * @author luiz
+ */
+public class FastQualityIndicator extends QualityIndicator {
+    
+    // Objectives of the true Pareto front
+    private final double[][] trueParetoFront;
+    
+    private final int numberOfObjectives;
+    
+    /**
+     * Constructor
+     * @param problem The problem
+     * @param paretoFrontFile File containing the true Pareto front
+     */
+    public FastQualityIndicator(Problem problem, String paretoFrontFile) {
+        super(problem, paretoFrontFile);
+        trueParetoFront = trueParetoFront_.writeObjectivesToMatrix();
+        numberOfObjectives = problem.getNumberOfObjectives();
+    }
+    
+    /**
+     * Returns the hypervolume of solution set
+     * @param solutionSet Solution set
+     * @return The value of the hypervolume indicator
+     */
+    @Override
+    public double getHypervolume(SolutionSet solutionSet) {
+        return new FastHypervolume().hypervolume(solutionSet.writeObjectivesToMatrix(), 
+                                                 trueParetoFront, numberOfObjectives);
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * Binary columnar file with the objectives (FUN) or the variables (VAR) of a 
+ * set of solutions, an alternative to the text files written by 
+ * <code>SolutionSet</code> that avoids formatting and parsing the numbers.
+ * 
+ * The file has a 16-byte header (the magic bytes <code>WPSC</code>, the 
+ * version, the number of rows and the number of columns, as 32-bit integers)
+ * followed by the columns, each with a value per row. All the values are 
+ * little-endian, and the doubles are aligned to 8 bytes.
+ * 
+ * A file is read by mapping it in memory: the values are read directly from
+ * the mapped pages, without copies. The <code>main</code> method converts a 
+ * file to the text format.
+ * @author luiz
+ */
+public class ColumnarFile {
+    
+    // Extension of the binary files
+    public static final String EXTENSION = ".bin";
+    
+    private static final byte[] MAGIC = {'W', 'P', 'S', 'C'};
+    
+    private static final int VERSION = 1;
+    
+    private static final int HEADER_SIZE = 16;
+    
+    // Size of the buffer used to write a file
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final int numberOfRows;
+    
+    private final int numberOfColumns;
+    
+    // Mapped file (little-endian)
+    private final ByteBuffer buffer;
+    
+    private ColumnarFile(int numberOfRows, int numberOfColumns, ByteBuffer buffer) {
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.buffer = buffer;
+    }
+    
+    /**
+     * Maps a file in memory. The values are read from the mapped pages, which
+     * are valid while the object is referenced
+     * @param file File written by one of the <code>write</code> methods
+     * @return The file
+     * @throws IOException If the file could not be read or is not a valid file
+     */
+    public static ColumnarFile open(File file) throws IOException {
+        ByteBuffer buffer;
+        try(RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            FileChannel channel = randomAccessFile.getChannel()){
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException("File too large to be mapped: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        
+        if(buffer.capacity() < HEADER_SIZE){
+            throw new IOException("Invalid columnar file (no header): " + file);
+        }
+        for(int i = 0; i < MAGIC.length; i++){
+            if(buffer.get(i) != MAGIC[i]){
+                throw new IOException("Invalid columnar file (wrong magic bytes): " + file);
+            }
+        }
+        if(buffer.getInt(4) != VERSION){
+            throw new IOException("Unsupported version " + buffer.getInt(4) + " of columnar file " + file);
+        }
+        int numberOfRows = buffer.getInt(8);
+        int numberOfColumns = buffer.getInt(12);
+        if(numberOfRows < 0 || numberOfColumns < 0 || 
+           buffer.capacity() != HEADER_SIZE + 8L * numberOfRows * numberOfColumns){
+            throw new IOException("Invalid columnar file (wrong size): " + file);
+        }
+        return new ColumnarFile(numberOfRows, numberOfColumns, buffer);
+    }
+    
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+    
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+    
+    /**
+     * @param row Row (solution)
+     * @param column Column (objective or variable)
+     * @return The value of the row in the column
+     */
+    public double get(int row, int column) {
+        return buffer.getDouble(HEADER_SIZE + 8 * (column * numberOfRows + row));
+    }
+    
+    /**
+     * @param column Column (objective or variable)
+     * @return A read-only view of the values of the column (in the mapped 
+     * pages)
+     */
+    public DoubleBuffer getColumn(int column) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(HEADER_SIZE + 8 * column * numberOfRows);
+        view.limit(HEADER_SIZE + 8 * (column + 1) * numberOfRows);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+    
+    /**
+     * @return A copy of the values, with a row per solution (as read by 
+     * <code>MetricsUtil.readFront</code>)
+     */
+    public double[][] toRows() {
+        double[][] rows = new double[numberOfRows][numberOfColumns];
+        for(int column = 0; column < numberOfColumns; column++){
+            DoubleBuffer values = getColumn(column);
+            for(int row = 0; row < numberOfRows; row++){
+                rows[row][column] = values.get(row);
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Writes the values in the text format of the FUN and VAR files (a line
+     * per row, each value followed by a space)
+     * @param file Text file
+     * @throws IOException If the file could not be written
+     */
+    public void writeText(File file) throws IOException {
+        DoubleBuffer[] columns = new DoubleBuffer[numberOfColumns];
+        for(int column = 0; column < numberOfColumns; column++){
+            columns[column] = getColumn(column);
+        }
+        try(BufferedWriter writer = new BufferedWriter(new FileWriter(file))){
+            StringBuilder line = new StringBuilder();
+            for(int row = 0; row < numberOfRows; row++){
+                line.setLength(0);
+                for(DoubleBuffer column : columns){
+                    line.append(column.get(row)).append(' ');
+                }
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        }
+    }
+    
+    /**
+     * Writes the objectives of the solutions (as 
+     * <code>printObjectivesToFile</code>)
+     * @param solutionSet Solutions
+     * @param path Path of the file
+     * @throws IOException If the file could not be written
+     */
+    public static void writeObjectives(SolutionSet solutionSet, String path) throws IOException {
+        writeObjectives(solutionSet, path, false);
+    }
+    
+    /**
+     * Writes the objectives of the feasible solutions (as 
+     * <code>printFeasibleFUN</code>)
+     * @param solutionSet Solutions
+     * @param path Path of the file
+     * @throws IOException If the file could not be written
+     */
+    public static void writeFeasibleObjectives(SolutionSet solutionSet, String path) throws IOException {
+        writeObjectives(solutionSet, path, true);
+    }
+    
+    private static void writeObjectives(SolutionSet solutionSet, String path, 
+                                        boolean onlyFeasible) throws IOException {
+        int numberOfRows = 0;
+        double[][] rows = new double[solutionSet.size()][];
+        for(int i = 0; i < solutionSet.size(); i++){
+            Solution solution = solutionSet.get(i);
+            if(!onlyFeasible || solution.getOverallConstraintViolation() == 0.0){
+                double[] objectives = new double[solution.getNumberOfObjectives()];
+                for(int j = 0; j < objectives.length; j++){
+                    objectives[j] = solution.getObjective(j);
+                }
+                rows[numberOfRows++] = objectives;
+            }
+        }
+        int numberOfColumns = solutionSet.size() > 0 ? solutionSet.get(0).getNumberOfObjectives() : 0;
+        write(rows, numberOfRows, numberOfColumns, new File(path));
+    }
+    
+    /**
+     * Writes the decision variables of the solutions (as 
+     * <code>printVariablesToFile</code>), which must have a real encoding
+     * @param solutionSet Solutions
+     * @param path Path of the file
+     * @throws JMException If the variables are not real
+     * @throws IOException If the file could not be written
+     */
+    public static void writeVariables(SolutionSet solutionSet, String path) throws JMException, IOException {
+        double[][] rows = new double[solutionSet.size()][];
+        for(int i = 0; i < solutionSet.size(); i++){
+            XReal variables = new XReal(solutionSet.get(i));
+            rows[i] = new double[variables.getNumberOfDecisionVariables()];
+            for(int j = 0; j < rows[i].length; j++){
+                rows[i][j] = variables.getValue(j);
+            }
+        }
+        int numberOfColumns = rows.length > 0 ? rows[0].length : 0;
+        write(rows, rows.length, numberOfColumns, new File(path));
+    }
+    
+    /**
+     * Writes a matrix
+     * @param rows Values of each row (with numberOfColumns values)
+     * @param numberOfRows Number of rows written (the first ones)
+     * @param numberOfColumns Number of columns
+     * @param file File
+     * @throws IOException If the file could not be written
+     */
+    public static void write(double[][] rows, int numberOfRows, int numberOfColumns, File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, 
+                                                   StandardOpenOption.WRITE, 
+                                                   StandardOpenOption.TRUNCATE_EXISTING)){
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC).putInt(VERSION).putInt(numberOfRows).putInt(numberOfColumns);
+            for(int column = 0; column < numberOfColumns; column++){
+                for(int row = 0; row < numberOfRows; row++){
+                    if(buffer.remaining() < 8){
+                        flush(buffer, channel);
+                    }
+                    buffer.putDouble(rows[row][column]);
+                }
+            }
+            flush(buffer, channel);
+        }
+    }
+    
+    private static void flush(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    /**
+     * Converts a binary file to the text format.
+     * Usage: jmetal.util.ColumnarFile binaryFile [textFile]
+     * (by default, the text file is the binary file without the extension)
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1 || args.length > 2){
+            System.err.println("Usage: jmetal.util.ColumnarFile binaryFile [textFile]");
+            System.exit(1);
+        }
+        String textFile = args.length == 2 ? args[1] : 
+                          args[0].endsWith(EXTENSION) ? args[0].substring(0, args[0].length() - EXTENSION.length()) :
+                                                        args[0] + ".txt";
+        open(new File(args[0])).writeText(new File(textFile));
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jmetal.core.Solution;
+import jmetal.encodings.solutionType.ArrayRealSolutionType;
+import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * Bounded cache of evaluations, keyed by the decision variables of the 
+ * solutions (compared bit by bit). A hit copies the objectives and the 
+ * constraint values of the cached evaluation to the solution, so the problem
+ * must be deterministic. The least recently used evaluations are evicted. 
+ * Only real encodings are cached (the other solutions are always evaluated).
+ * The cache is not thread-safe.
+ * @author luiz
+ */
+public class EvaluationCache {
+    
+    private final Map<Key, Evaluation> evaluations;
+    
+    // Solutions of the last batch looked up with the same variables as a 
+    // solution to evaluate
+    private final Map<Solution, Solution> duplicates;
+    
+    private long hits = 0;
+    private long misses = 0;
+    
+    /**
+     * Constructor
+     * @param capacity Maximum number of evaluations kept
+     */
+    public EvaluationCache(final int capacity) {
+        this.evaluations = new LinkedHashMap<Key, Evaluation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Evaluation> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.duplicates = new HashMap<>();
+    }
+    
+    /**
+     * Looks up a solution. On a hit, its objectives and constraint values are
+     * copied from the cache
+     * @param solution Solution to evaluate
+     * @return True on a hit, false if the solution has to be evaluated
+     * @throws JMException 
+     */
+    public boolean lookup(Solution solution) throws JMException {
+        Key key = Key.of(solution);
+        Evaluation evaluation = key == null ? null : evaluations.get(key);
+        if(evaluation == null){
+            misses++;
+            return false;
+        }
+        evaluation.copyTo(solution);
+        hits++;
+        return true;
+    }
+    
+    /**
+     * Looks up a batch of solutions. Besides the hits, the solutions with the
+     * same variables as a previous solution of the batch are not evaluated:
+     * they are completed by <code>store(List)</code>
+     * @param batch Solutions to evaluate
+     * @return The solutions that have to be evaluated
+     * @throws JMException 
+     */
+    public List<Solution> lookup(List<Solution> batch) throws JMException {
+        duplicates.clear();
+        List<Solution> toEvaluate = new ArrayList<>(batch.size());
+        Map<Key, Solution> inBatch = new HashMap<>(2 * batch.size());
+        for(Solution solution : batch){
+            Key key = Key.of(solution);
+            Evaluation evaluation = key == null ? null : evaluations.get(key);
+            if(evaluation != null){
+                evaluation.copyTo(solution);
+                hits++;
+            }
+            else if(key != null && inBatch.containsKey(key)){
+                duplicates.put(solution, inBatch.get(key));
+                hits++;
+            }
+            else{
+                if(key != null){
+                    inBatch.put(key, solution);
+                }
+                toEvaluate.add(solution);
+                misses++;
+            }
+        }
+        return toEvaluate;
+    }
+    
+    /**
+     * Stores the evaluation of a solution
+     * @param solution Evaluated solution
+     * @throws JMException 
+     */
+    public void store(Solution solution) throws JMException {
+        Key key = Key.of(solution);
+        if(key != null){
+            evaluations.put(key, new Evaluation(solution));
+        }
+    }
+    
+    /**
+     * Stores the evaluations of the solutions returned by 
+     * <code>lookup(List)</code> and completes the duplicates of the batch
+     * @param evaluated Evaluated solutions
+     * @throws JMException 
+     */
+    public void store(List<Solution> evaluated) throws JMException {
+        for(Solution solution : evaluated){
+            store(solution);
+        }
+        for(Map.Entry<Solution, Solution> duplicate : duplicates.entrySet()){
+            new Evaluation(duplicate.getValue()).copyTo(duplicate.getKey());
+        }
+        duplicates.clear();
+    }
+    
+    /**
+     * @return The number of hits (solutions not evaluated)
+     */
+    public long getHits() {
+        return hits;
+    }
+    
+    /**
+     * @return The number of misses (solutions evaluated)
+     */
+    public long getMisses() {
+        return misses;
+    }
+    
+    /**
+     * @return The fraction of the lookups that were hits
+     */
+    public double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+    
+    /**
+     * Decision variables of a solution
+     */
+    private static class Key {
+        private final double[] variables;
+        private final int hash;
+        
+        private Key(double[] variables) {
+            this.variables = variables;
+            this.hash = Arrays.hashCode(variables);
+        }
+        
+        /**
+         * @return The key of the solution or null if its encoding is not real
+         */
+        static Key of(Solution solution) throws JMException {
+            if(!(solution.getType() instanceof RealSolutionType || 
+                    solution.getType() instanceof ArrayRealSolutionType)){
+                return null;
+            }
+            XReal x = new XReal(solution);
+            double[] variables = new double[x.getNumberOfDecisionVariables()];
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = x.getValue(i);
+            }
+            return new Key(variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Key && Arrays.equals(variables, ((Key) object).variables);
+        }
+    }
+    
+    /**
+     * Objectives and constraint values of an evaluated solution
+     */
+    private static class Evaluation {
+        private final double[] objectives;
+        private final double overallConstraintViolation;
+        private final int numberOfViolatedConstraints;
+        
+        Evaluation(Solution solution) {
+            objectives = new double[solution.getNumberOfObjectives()];
+            for (int i = 0; i < objectives.length; i++) {
+                objectives[i] = solution.getObjective(i);
+            }
+            overallConstraintViolation = solution.getOverallConstraintViolation();
+            numberOfViolatedConstraints = solution.getNumberOfViolatedConstraint();
+        }
+        
+        void copyTo(Solution solution) {
+            for (int i = 0; i < objectives.length; i++) {
+                solution.setObjective(i, objectives[i]);
+            }
+            solution.setOverallConstraintViolation(overallConstraintViolation);
+            solution.setNumberOfViolatedConstraint(numberOfViolatedConstraints);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.util.List;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+/**
+ * Packed copy of the objectives and the overall constraint violation of a 
+ * list of solutions. The objectives are stored in a single array, one row 
+ * per solution (row p starts at p * numberOfObjectives), so the comparisons 
+ * run over primitive values instead of calling <code>getObjective</code>.
+ * @author luiz
+ */
+public class ObjectiveMatrix {
+    // Objective values, one row per solution
+    private final double[] objectives;
+    
+    // Overall constraint violation of each solution
+    private final double[] violations;
+    
+    private final int numberOfObjectives;
+    
+    private final int size;
+    
+    // True if some objective is NaN
+    private boolean hasNaN = false;
+    
+    // True if all solutions have zero overall constraint violation
+    private boolean isFeasible = true;
+    
+    // True if no overall constraint violation is positive or NaN (jMetal 
+    // stores the violations as non-positive values)
+    private boolean hasRegularViolations = true;
+    
+    /**
+     * Constructor
+     * @param solutionSet Solutions copied to the matrix
+     */
+    public ObjectiveMatrix(SolutionSet solutionSet) {
+        size = solutionSet.size();
+        numberOfObjectives = size > 0 ? solutionSet.get(0).getNumberOfObjectives() : 0;
+        objectives = new double[size * numberOfObjectives];
+        violations = new double[size];
+        for (int p = 0; p < size; p++) {
+            setRow(p, solutionSet.get(p));
+        }
+    }
+    
+    /**
+     * Constructor
+     * @param solutionList Solutions copied to the matrix
+     */
+    public ObjectiveMatrix(List<Solution> solutionList) {
+        size = solutionList.size();
+        numberOfObjectives = size > 0 ? solutionList.get(0).getNumberOfObjectives() : 0;
+        objectives = new double[size * numberOfObjectives];
+        violations = new double[size];
+        for (int p = 0; p < size; p++) {
+            setRow(p, solutionList.get(p));
+        }
+    }
+    
+    private void setRow(int p, Solution solution) {
+        int offset = p * numberOfObjectives;
+        for (int i = 0; i < numberOfObjectives; i++) {
+            double value = solution.getObjective(i);
+            hasNaN |= Double.isNaN(value);
+            // Adding zero turns -0.0 into 0.0, which does not change any 
+            // comparison, but makes Double.compare consistent with them
+            objectives[offset + i] = value + 0.0;
+        }
+        violations[p] = solution.getOverallConstraintViolation();
+        isFeasible &= violations[p] == 0;
+        hasRegularViolations &= violations[p] <= 0;
+    }
+    
+    /**
+     * Compares the objectives of two rows as <code>DominanceComparator</code>
+     * does for feasible solutions. The objectives are compared in blocks of 
+     * four with no branches inside a block, and the loop stops as soon as 
+     * both rows are better than the other in some objective.
+     * @param p Index of the first row
+     * @param q Index of the second row
+     * @return -1 if p dominates q, 1 if q dominates p and 0 otherwise
+     */
+    public int dominance(int p, int q) {
+        int offsetP = p * numberOfObjectives;
+        int offsetQ = q * numberOfObjectives;
+        int better = 0;
+        int worse = 0;
+        int i = 0;
+        for (; i + 3 < numberOfObjectives; i += 4) {
+            better |= lessThan(objectives[offsetP + i], objectives[offsetQ + i])
+                    | lessThan(objectives[offsetP + i + 1], objectives[offsetQ + i + 1])
+                    | lessThan(objectives[offsetP + i + 2], objectives[offsetQ + i + 2])
+                    | lessThan(objectives[offsetP + i + 3], objectives[offsetQ + i + 3]);
+            worse |= lessThan(objectives[offsetQ + i], objectives[offsetP + i])
+                   | lessThan(objectives[offsetQ + i + 1], objectives[offsetP + i + 1])
+                   | lessThan(objectives[offsetQ + i + 2], objectives[offsetP + i + 2])
+                   | lessThan(objectives[offsetQ + i + 3], objectives[offsetP + i + 3]);
+            if((better & worse) != 0){
+                return 0;
+            }
+        }
+        for (; i < numberOfObjectives; i++) {
+            better |= lessThan(objectives[offsetP + i], objectives[offsetQ + i]);
+            worse |= lessThan(objectives[offsetQ + i], objectives[offsetP + i]);
+        }
+        return worse - better;
+    }
+    
+    private static int lessThan(double a, double b) {
+        return a < b ? 1 : 0;
+    }
+    
+    /**
+     * Check if two rows are equal in the objective space
+     * @param p Index of the first row
+     * @param q Index of the second row
+     * @return True if they are equal and false otherwise
+     */
+    public boolean isEqual(int p, int q) {
+        int offsetP = p * numberOfObjectives;
+        int offsetQ = q * numberOfObjectives;
+        int different = 0;
+        for (int i = 0; i < numberOfObjectives; i++) {
+            different |= objectives[offsetP + i] != objectives[offsetQ + i] ? 1 : 0;
+        }
+        return different == 0;
+    }
+    
+    /**
+     * Compares the overall constraint violation of two rows as 
+     * <code>OverallConstraintViolationComparator</code> does
+     * @param p Index of the first row
+     * @param q Index of the second row
+     * @return -1 if p is better, 1 if q is better and 0 otherwise
+     */
+    public int compareViolation(int p, int q) {
+        double overall1 = violations[p];
+        double overall2 = violations[q];
+        if ((overall1 < 0) && (overall2 < 0)) {
+            if (overall1 > overall2) {
+                return -1;
+            } else if (overall2 > overall1) {
+                return 1;
+            } else {
+                return 0;
+            }
+        } else if ((overall1 == 0) && (overall2 < 0)) {
+            return -1;
+        } else if ((overall1 < 0) && (overall2 == 0)) {
+            return 1;
+        } else {
+            return 0;
+        }
+    }
+    
+    /**
+     * Computes the weighted sum of the objectives of a row
+     * @param p Index of the row
+     * @param weightVector Weight of each objective
+     * @return The weighted sum
+     */
+    public double weightedSum(int p, double[] weightVector) {
+        int offset = p * numberOfObjectives;
+        double sum = 0;
+        for (int i = 0; i < numberOfObjectives; i++) {
+            sum += weightVector[i] * objectives[offset + i];
+        }
+        return sum;
+    }
+    
+    /**
+     * @param p Index of the row
+     * @param i Index of the objective
+     * @return The value of the i-th objective of the p-th row
+     */
+    public double get(int p, int i) {
+        return objectives[p * numberOfObjectives + i];
+    }
+    
+    /**
+     * @param p Index of the row
+     * @return The overall constraint violation of the p-th row
+     */
+    public double getViolation(int p) {
+        return violations[p];
+    }
+
+    /**
+     * @return the numberOfObjectives
+     */
+    public int getNumberOfObjectives() {
+        return numberOfObjectives;
+    }
+
+    /**
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if some objective is NaN
+     */
+    public boolean hasNaN() {
+        return hasNaN;
+    }
+
+    /**
+     * @return True if all the rows have zero overall constraint violation
+     */
+    public boolean isFeasible() {
+        return isFeasible;
+    }
+
+    /**
+     * @return True if no row has a positive or NaN overall constraint 
+     * violation
+     */
+    public boolean hasRegularViolations() {
+        return hasRegularViolations;
+    }
+}
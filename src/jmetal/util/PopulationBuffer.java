@@ -0,0 +1,367 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+import jmetal.core.Variable;
+import jmetal.encodings.solutionType.RealSolutionType;
+import jmetal.encodings.variable.Real;
+
+/**
+ * Population stored as a struct of arrays: the decision variables, the 
+ * objectives and the constraint values of the solutions are kept in flat 
+ * arrays, one row per slot (row s of the variables starts at 
+ * s * numberOfVariables). Each slot has a single <code>Solution</code> view, 
+ * created with the buffer, whose getters and setters read and write the 
+ * arrays, so the operators and the problem work on the views as usual.
+ * <p>
+ * The buffer has room for a population and its offspring. After a 
+ * replacement, the slots of the solutions that did not survive hold the next
+ * offspring, so the solutions are recycled instead of allocated in each 
+ * generation. Only the real encoding is supported.
+ * @author luiz
+ */
+public class PopulationBuffer {
+    
+    private final Problem problem;
+    
+    private final int numberOfVariables;
+    
+    private final int numberOfObjectives;
+    
+    // Decision variables, one row per slot
+    private final double[] variables;
+    
+    // Bounds of each decision variable
+    private final double[] lowerBounds;
+    private final double[] upperBounds;
+    
+    // Objectives, one row per slot
+    private final double[] objectives;
+    
+    // Overall constraint violation and number of violated constraints of 
+    // each slot
+    private final double[] violations;
+    private final int[] numberOfViolated;
+    
+    // View of each slot
+    private final View[] views;
+    
+    // Slots that do not hold a solution of the population (used as a stack)
+    private final int[] free;
+    private int numberOfFree;
+    
+    // True for the slots kept by the last call to retain
+    private final boolean[] retained;
+    
+    /**
+     * Constructor
+     * @param problem Problem of the solutions (real encoding)
+     * @param capacity Number of slots
+     * @throws JMException 
+     */
+    public PopulationBuffer(Problem problem, int capacity) throws JMException {
+        if(!isSupported(problem)){
+            throw new JMException("The population buffer requires the real encoding");
+        }
+        this.problem = problem;
+        numberOfVariables = problem.getNumberOfVariables();
+        numberOfObjectives = problem.getNumberOfObjectives();
+        variables = new double[capacity * numberOfVariables];
+        lowerBounds = new double[numberOfVariables];
+        upperBounds = new double[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++) {
+            lowerBounds[j] = problem.getLowerLimit(j);
+            upperBounds[j] = problem.getUpperLimit(j);
+        }
+        objectives = new double[capacity * numberOfObjectives];
+        violations = new double[capacity];
+        numberOfViolated = new int[capacity];
+        views = new View[capacity];
+        free = new int[capacity];
+        retained = new boolean[capacity];
+        for (int s = 0; s < capacity; s++) {
+            views[s] = new View(s);
+            // The first slots are acquired first
+            free[s] = capacity - 1 - s;
+        }
+        numberOfFree = capacity;
+    }
+    
+    /**
+     * @param problem Problem to solve
+     * @return True if the solutions of the problem can be stored in a buffer
+     * (only the real encoding: XReal reads the values of the ArrayReal 
+     * encoding from the array of its variable, which can not be a view of 
+     * the buffer)
+     */
+    public static boolean isSupported(Problem problem) {
+        return problem.getSolutionType() instanceof RealSolutionType;
+    }
+    
+    /**
+     * Copies a solution to a free slot
+     * @param source Solution copied (a view or a real-encoded solution)
+     * @return The view of the slot
+     * @throws JMException If there are no free slots
+     */
+    public Solution acquire(Solution source) throws JMException {
+        int slot = acquireSlot();
+        int offset = slot * numberOfVariables;
+        int origin = getSlot(source);
+        if(origin >= 0){
+            System.arraycopy(variables, origin * numberOfVariables, variables, offset, numberOfVariables);
+        }
+        else{
+            Variable[] sourceVariables = source.getDecisionVariables();
+            for (int j = 0; j < numberOfVariables; j++) {
+                variables[offset + j] = sourceVariables[j].getValue();
+            }
+        }
+        offset = slot * numberOfObjectives;
+        for (int i = 0; i < numberOfObjectives; i++) {
+            objectives[offset + i] = source.getObjective(i);
+        }
+        violations[slot] = source.getOverallConstraintViolation();
+        numberOfViolated[slot] = source.getNumberOfViolatedConstraint();
+        return views[slot];
+    }
+    
+    /**
+     * Takes a free slot to be written directly (e.g., by the batch 
+     * operators). Its variables and objectives are undefined and its 
+     * constraint values are zero
+     * @return The slot
+     * @throws JMException If there are no free slots
+     */
+    public int acquireSlot() throws JMException {
+        if(numberOfFree == 0){
+            throw new JMException("The population buffer is full");
+        }
+        int slot = free[--numberOfFree];
+        violations[slot] = 0;
+        numberOfViolated[slot] = 0;
+        return slot;
+    }
+    
+    /**
+     * Keeps the slots of a population and frees the others. The solutions of
+     * the population that are not views of this buffer (e.g., immigrants) are
+     * copied to free slots and replaced by their views.
+     * @param population Solutions kept
+     * @throws JMException If there are not enough slots
+     */
+    public void retain(SolutionSet population) throws JMException {
+        for (int s = 0; s < views.length; s++) {
+            retained[s] = false;
+        }
+        int numberOfForeign = 0;
+        for (int i = 0; i < population.size(); i++) {
+            int slot = getSlot(population.get(i));
+            if(slot >= 0 && !retained[slot]){
+                retained[slot] = true;
+            }
+            else{
+                numberOfForeign++;
+            }
+        }
+        numberOfFree = 0;
+        for (int s = views.length - 1; s >= 0; s--) {
+            if(!retained[s]){
+                free[numberOfFree++] = s;
+            }
+        }
+        if(numberOfForeign == 0){
+            return;
+        }
+        for (int i = 0; i < population.size(); i++) {
+            Solution solution = population.get(i);
+            int slot = getSlot(solution);
+            if(slot >= 0 && retained[slot]){
+                // Other occurrences of the same view are copied
+                retained[slot] = false;
+            }
+            else{
+                population.replace(i, acquire(solution));
+            }
+        }
+    }
+    
+    /**
+     * @param solution A solution
+     * @return The slot of the solution or -1 if it is not a view of this buffer
+     */
+    public int getSlot(Solution solution) {
+        if(solution instanceof View && ((View) solution).getBuffer() == this){
+            return ((View) solution).slot;
+        }
+        return -1;
+    }
+    
+    /**
+     * @param slot A slot
+     * @return The view of the slot
+     */
+    public Solution getView(int slot) {
+        return views[slot];
+    }
+    
+    /**
+     * @return The decision variables of the slots (row s starts at 
+     * s * getNumberOfVariables())
+     */
+    public double[] getVariables() {
+        return variables;
+    }
+    
+    /**
+     * @return The lower bound of each decision variable
+     */
+    public double[] getLowerBounds() {
+        return lowerBounds;
+    }
+    
+    /**
+     * @return The upper bound of each decision variable
+     */
+    public double[] getUpperBounds() {
+        return upperBounds;
+    }
+    
+    /**
+     * @return The number of decision variables
+     */
+    public int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+    
+    /**
+     * @return The number of slots
+     */
+    public int getCapacity() {
+        return views.length;
+    }
+    
+    /**
+     * @return The number of slots that can be acquired
+     */
+    public int getNumberOfFree() {
+        return numberOfFree;
+    }
+    
+    /**
+     * Solution stored in a slot of the buffer
+     */
+    private final class View extends Solution {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int slot;
+        
+        View(int slot) {
+            super(problem, createVariables(slot));
+            this.slot = slot;
+        }
+        
+        PopulationBuffer getBuffer() {
+            return PopulationBuffer.this;
+        }
+        
+        @Override
+        public double getObjective(int i) {
+            return objectives[slot * numberOfObjectives + i];
+        }
+        
+        @Override
+        public void setObjective(int i, double value) {
+            objectives[slot * numberOfObjectives + i] = value;
+        }
+        
+        @Override
+        public double getOverallConstraintViolation() {
+            return violations[slot];
+        }
+        
+        @Override
+        public void setOverallConstraintViolation(double value) {
+            violations[slot] = value;
+        }
+        
+        @Override
+        public int getNumberOfViolatedConstraint() {
+            return numberOfViolated[slot];
+        }
+        
+        @Override
+        public void setNumberOfViolatedConstraint(int value) {
+            numberOfViolated[slot] = value;
+        }
+    }
+    
+    private Variable[] createVariables(int slot) {
+        Variable[] slotVariables = new Variable[numberOfVariables];
+        for (int j = 0; j < numberOfVariables; j++) {
+            slotVariables[j] = new Element(slot * numberOfVariables + j, lowerBounds[j], upperBounds[j]);
+        }
+        return slotVariables;
+    }
+    
+    /**
+     * Decision variable stored in the buffer. Its copies are ordinary 
+     * <code>Real</code> variables.
+     */
+    private final class Element extends Real {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final int index;
+        
+        Element(int index, double lowerBound, double upperBound) {
+            super(lowerBound, upperBound, 0.0);
+            this.index = index;
+        }
+        
+        @Override
+        public double getValue() {
+            return variables[index];
+        }
+        
+        @Override
+        public void setValue(double value) {
+            variables[index] = value;
+        }
+        
+        @Override
+        public Variable deepCopy() {
+            return new Real(getLowerBound(), getUpperBound(), variables[index]);
+        }
+        
+        @Override
+        public String toString() {
+            return Double.toString(variables[index]);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+/**
+ * Generator that draws from the global <code>PseudoRandom</code>. It is the
+ * generator of the runs without a seed, so they keep using (and can be 
+ * reproduced by seeding) <code>PseudoRandom</code>. It must not be installed
+ * in <code>PseudoRandom</code>.
+ * @author luiz
+ */
+public class PseudoRandomGenerator implements IRandomGenerator {
+
+    @Override
+    public int nextInt(int upperBound) {
+        return PseudoRandom.randInt(0, upperBound - 1);
+    }
+
+    @Override
+    public double nextDouble() {
+        return PseudoRandom.randDouble();
+    }
+
+    @Override
+    public int nextInt(int lowerBound, int upperBound) {
+        return PseudoRandom.randInt(lowerBound, upperBound);
+    }
+
+    @Override
+    public double nextDouble(double lowerBound, double upperBound) {
+        return PseudoRandom.randDouble(lowerBound, upperBound);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Points of the simplex lattice used by Grips, as a read-only list: every 
+ * weight vector whose coordinates are taken from 
+ * <code>MathUtils.range(0, 1, numberOfDivisions)</code> and whose coordinate 
+ * indexes sum to <code>numberOfDivisions - 1</code>. The points are listed in
+ * lexicographic order of the indexes of the first M - 1 coordinates.
+ * 
+ * The k-th point is built directly from k by counting the compositions of 
+ * each remaining sum (combinatorial number system), so the memory needed 
+ * grows with M * numberOfDivisions, not with the size of the lattice, which 
+ * is C(numberOfDivisions + M - 2, M - 1). Small lattices can be stored.
+ * @author luiz
+ */
+public class SimplexLattice extends AbstractList<double[]> implements RandomAccess {
+    
+    // Lattices with at most this number of coordinates are stored by default
+    public static final int MAX_STORED_COORDINATES = 1 << 20;
+    
+    private final int numberOfObjectives;
+    private final int numberOfDivisions;
+    
+    // Value of each coordinate index
+    private final double[] coordinates;
+    
+    // compositions[k][r]: number of ways of writing r as the sum of k 
+    // non-negative indexes (saturated at Long.MAX_VALUE)
+    private final long[][] compositions;
+    
+    private final int size;
+    
+    // Stored points (null if the points are built on demand)
+    private final double[][] points;
+    
+    /**
+     * Constructor. The points are stored if the lattice has at most 
+     * <code>MAX_STORED_COORDINATES</code> coordinates
+     * @param numberOfObjectives Number of coordinates of each point (M)
+     * @param numberOfDivisions Number of values of each coordinate
+     */
+    public SimplexLattice(int numberOfObjectives, int numberOfDivisions) {
+        this(numberOfObjectives, numberOfDivisions, false);
+    }
+    
+    /**
+     * Constructor
+     * @param numberOfObjectives Number of coordinates of each point (M)
+     * @param numberOfDivisions Number of values of each coordinate
+     * @param onDemand If true, the points are never stored; otherwise they 
+     * are stored when the lattice has at most <code>MAX_STORED_COORDINATES</code>
+     * coordinates
+     */
+    public SimplexLattice(int numberOfObjectives, int numberOfDivisions, boolean onDemand) {
+        if(numberOfObjectives < 2 || numberOfDivisions < 1){
+            throw new IllegalArgumentException("Invalid lattice: " + numberOfObjectives + 
+                                               " objectives and " + numberOfDivisions + " divisions");
+        }
+        this.numberOfObjectives = numberOfObjectives;
+        this.numberOfDivisions = numberOfDivisions;
+        this.coordinates = MathUtils.range(0, 1, numberOfDivisions);
+        
+        compositions = new long[numberOfObjectives + 1][numberOfDivisions];
+        for(int r = 0; r < numberOfDivisions; r++){
+            compositions[1][r] = 1;
+        }
+        for(int k = 2; k <= numberOfObjectives; k++){
+            compositions[k][0] = 1;
+            for(int r = 1; r < numberOfDivisions; r++){
+                long sum = compositions[k][r - 1] + compositions[k - 1][r];
+                compositions[k][r] = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+        }
+        long numberOfPoints = compositions[numberOfObjectives][numberOfDivisions - 1];
+        if(numberOfPoints > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("The lattice with " + numberOfObjectives + 
+                                               " objectives and " + numberOfDivisions + 
+                                               " divisions has more than " + Integer.MAX_VALUE + " points");
+        }
+        this.size = (int) numberOfPoints;
+        
+        if(!onDemand && (long) size * numberOfObjectives <= MAX_STORED_COORDINATES){
+            points = new double[size][];
+            int k = 0;
+            for(Iterator<double[]> it = new LatticeIterator(); it.hasNext(); k++){
+                points[k] = it.next();
+            }
+        }
+        else{
+            points = null;
+        }
+    }
+    
+    /**
+     * @return The number of points of the lattice
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @param index Index of the point
+     * @return The point (a new array if the points are not stored)
+     */
+    @Override
+    public double[] get(int index) {
+        if(index < 0 || index >= size){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if(points != null){
+            return points[index];
+        }
+        int[] indexes = new int[numberOfObjectives];
+        unrank(index, indexes);
+        return toPoint(indexes);
+    }
+    
+    /**
+     * The points are visited in order, each one obtained from the previous 
+     * one in O(M)
+     */
+    @Override
+    public Iterator<double[]> iterator() {
+        if(points != null){
+            return super.iterator();
+        }
+        return new LatticeIterator();
+    }
+    
+    /**
+     * @return True if the points are stored
+     */
+    public boolean isStored() {
+        return points != null;
+    }
+    
+    /**
+     * Finds the coordinate indexes of the index-th point: the value of each 
+     * coordinate is chosen by skipping the points with smaller values in it
+     * @param index Index of the point
+     * @param indexes Coordinate indexes of the point (output)
+     */
+    private void unrank(long index, int[] indexes) {
+        int remaining = numberOfDivisions - 1;
+        for(int i = 0; i < numberOfObjectives - 1; i++){
+            // Points with the i-th index equal to v
+            int parts = numberOfObjectives - i - 1;
+            int v = 0;
+            while(index >= compositions[parts][remaining - v]){
+                index -= compositions[parts][remaining - v];
+                v++;
+            }
+            indexes[i] = v;
+            remaining -= v;
+        }
+        indexes[numberOfObjectives - 1] = remaining;
+    }
+    
+    private double[] toPoint(int[] indexes) {
+        double[] point = new double[numberOfObjectives];
+        for(int i = 0; i < numberOfObjectives; i++){
+            point[i] = coordinates[indexes[i]];
+        }
+        return point;
+    }
+    
+    /**
+     * Visits the points in lexicographic order
+     */
+    private class LatticeIterator implements Iterator<double[]> {
+        private final int[] indexes = new int[numberOfObjectives];
+        private int next = 0;
+        
+        LatticeIterator() {
+            indexes[numberOfObjectives - 1] = numberOfDivisions - 1;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+        
+        @Override
+        public double[] next() {
+            if(next >= size){
+                throw new NoSuchElementException();
+            }
+            double[] point = toPoint(indexes);
+            next++;
+            
+            // Successor: increment the last but one index if the last one is
+            // not zero. Otherwise, move the last non-zero index (but one) to the
+            // left and give its remaining value to the last index.
+            int last = numberOfObjectives - 1;
+            if(indexes[last] > 0){
+                indexes[last - 1]++;
+                indexes[last]--;
+            }
+            else{
+                int i = last - 1;
+                while(i > 0 && indexes[i] == 0){
+                    i--;
+                }
+                if(i > 0){
+                    indexes[i - 1]++;
+                    indexes[last] = indexes[i] - 1;
+                    indexes[i] = 0;
+                }
+            }
+            return point;
+        }
+        
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
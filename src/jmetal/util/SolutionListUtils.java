@@ -23,10 +23,23 @@ public class SolutionListUtils {
      * @return An Integer Collection with the indexes
      */
     public static Collection<Integer> selectNRandomDifferentPostions(int numPositionsReturn, int setSize){
+        return selectNRandomDifferentPostions(numPositionsReturn, setSize, new PseudoRandomGenerator());
+    }
+    
+    /**
+     * Select <code>numPositionsReturn</code> different indexes from a set given
+     * its size
+     * @param numPositionsReturn Number of positions to select
+     * @param setSize Size of the set
+     * @param random Random generator
+     * @return An Integer Collection with the indexes
+     */
+    public static Collection<Integer> selectNRandomDifferentPostions(int numPositionsReturn, int setSize, 
+                                                                     IRandomGenerator random){
         Collection<Integer> positions = new HashSet<>(numPositionsReturn);
         
         while (positions.size() < numPositionsReturn) {
-            int nextPosition = PseudoRandom.randInt(0, setSize-1);
+            int nextPosition = random.nextInt(0, setSize-1);
             if (!positions.contains(nextPosition)) {
                 positions.add(nextPosition);
             }
@@ -45,6 +58,21 @@ public class SolutionListUtils {
      */
     public static SolutionSet selectNRandomDifferentSolutions(int numSolutionsReturn,
                                                              SolutionSet solutionSet) throws JMException{
+        return selectNRandomDifferentSolutions(numSolutionsReturn, solutionSet, new PseudoRandomGenerator());
+    }
+    
+    /**
+     * Select <code>numSolutionsReturn</code> solutions from the input solution set without
+     * replacement
+     * @param numSolutionsReturn Number of solutions to select
+     * @param solutionSet Input solution set
+     * @param random Random generator
+     * @return A set with the selected solutions
+     * @throws JMException JMException Triggered when there is an error with the size of the 
+     * input solution set
+     */
+    public static SolutionSet selectNRandomDifferentSolutions(int numSolutionsReturn, SolutionSet solutionSet, 
+                                                             IRandomGenerator random) throws JMException{
         if (null == solutionSet) {
             throw new JMException("The solution list is null") ;
         } else if (solutionSet.size() == 0) {
@@ -54,7 +82,7 @@ public class SolutionListUtils {
                                   ") is less than the number of requested solutions (" + 
                                   numSolutionsReturn+")") ;
         }
-        Collection<Integer> positions = selectNRandomDifferentPostions(numSolutionsReturn, solutionSet.size());
+        Collection<Integer> positions = selectNRandomDifferentPostions(numSolutionsReturn, solutionSet.size(), random);
         SolutionSet selectedSet = new SolutionSet(numSolutionsReturn);
         Iterator<Integer> indexIterator = positions.iterator();
         while(indexIterator.hasNext()){
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+/**
+ * SplitMix64 pseudo-random generator. Its whole state is a single 
+ * <code>long</code>, so it can be saved and restored (e.g., in checkpoints) 
+ * and a run continues with exactly the same sequence of numbers.
+ * @author luiz
+ */
+public class SplitMixRandomGenerator implements IRandomGenerator {
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+    
+    // Generator of the seeds of the generators created without a seed
+    private static final SplitMixRandomGenerator seeds = new SplitMixRandomGenerator(System.nanoTime());
+    
+    // State of the generator
+    private long state;
+    
+    /**
+     * Constructor
+     * @param seed Seed of the generator
+     */
+    public SplitMixRandomGenerator(long seed) {
+        this.state = seed;
+    }
+    
+    /**
+     * Returns a seed split from a process-wide generator seeded with the time
+     * (as <code>SplittableRandom</code> does for its instances without a 
+     * seed), so the generators created with these seeds draw from different
+     * sequences
+     * @return A new seed
+     */
+    public static long newSeed() {
+        synchronized(seeds){
+            return seeds.nextLong();
+        }
+    }
+    
+    /**
+     * @return The current state of the generator
+     */
+    public long getState() {
+        return state;
+    }
+    
+    /**
+     * @param state State returned by <code>getState</code>
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+    
+    /**
+     * @return The next 64 random bits
+     */
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * @param upperBound Upper bound (exclusive)
+     * @return A uniform integer in [0, upperBound)
+     */
+    @Override
+    public int nextInt(int upperBound) {
+        if(upperBound <= 0){
+            throw new IllegalArgumentException("upperBound must be positive");
+        }
+        // Rejection of the last incomplete interval, as in java.util.Random
+        int bits, value;
+        do{
+            bits = (int) (nextLong() >>> 33);
+            value = bits % upperBound;
+        } while(bits - value + (upperBound - 1) < 0);
+        return value;
+    }
+    
+    /**
+     * @return A uniform double in [0, 1)
+     */
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+    
+    /**
+     * @param lowerBound Lower bound (inclusive)
+     * @param upperBound Upper bound (inclusive)
+     * @return A uniform integer in [lowerBound, upperBound]
+     */
+    @Override
+    public int nextInt(int lowerBound, int upperBound) {
+        return lowerBound + nextInt(upperBound - lowerBound + 1);
+    }
+    
+    /**
+     * @param lowerBound Lower bound (inclusive)
+     * @param upperBound Upper bound (exclusive)
+     * @return A uniform double in [lowerBound, upperBound)
+     */
+    @Override
+    public double nextDouble(double lowerBound, double upperBound) {
+        return lowerBound + nextDouble() * (upperBound - lowerBound);
+    }
+}
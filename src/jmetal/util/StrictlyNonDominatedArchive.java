@@ -0,0 +1,251 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import jmetal.core.Solution;
+import jmetal.core.SolutionSet;
+
+/**
+ * Keeps the strictly non-dominated solutions of a population across 
+ * generations. The union of the population with the offspring is ranked by
+ * comparing only the non-dominated solutions of the population with the 
+ * offspring (and the offspring with each other): a dominated solution of the
+ * population is still dominated in the union, and the non-dominated ones do
+ * not dominate each other. The result is the same as 
+ * <code>new StrictlyNonDominatedSet(union)</code>.
+ * 
+ * Usage, for each generation: <code>rank(union)</code>, where the union 
+ * starts with the current population, and then 
+ * <code>setPopulation(newPopulation)</code>, where the new population is 
+ * selected from the union.
+ * @author luiz
+ */
+public class StrictlyNonDominatedArchive {
+    
+    // Solutions of the population, in order (null if it is unknown)
+    private Solution[] population;
+    
+    // True for the strictly non-dominated solutions of the population
+    private boolean[] front;
+    
+    // Last union ranked and its ranking
+    private SolutionSet union;
+    private StrictlyNonDominatedSet ranking;
+    
+    /**
+     * Ranks a union of solutions. If the union starts with the population 
+     * given to <code>setPopulation</code>, only the non-dominated solutions of
+     * the population are compared with the new solutions. Otherwise, the 
+     * whole union is ranked.
+     * @param union The <code>SolutionSet</code> to be ranked
+     * @return The ranking of the union
+     */
+    public StrictlyNonDominatedSet rank(SolutionSet union) {
+        this.union = union;
+        if(startsWithPopulation(union)){
+            ranking = new StrictlyNonDominatedSet(union, front, population.length);
+        }
+        else{
+            ranking = new StrictlyNonDominatedSet(union);
+        }
+        return ranking;
+    }
+    
+    /**
+     * Sets the population selected from the last union ranked and finds its
+     * strictly non-dominated solutions. This is immediate when the population
+     * contains only non-dominated solutions of the union or all of them (the 
+     * cases of the WeiPS replacement). Otherwise, the next union is ranked 
+     * from scratch.
+     * @param newPopulation Solutions selected from the last union ranked
+     */
+    public void setPopulation(SolutionSet newPopulation) {
+        population = null;
+        front = null;
+        if(ranking == null){
+            return;
+        }
+        ObjectiveMatrix objectives = ranking.getObjectiveMatrix();
+        
+        // Position of each solution in the union
+        Map<Solution, Integer> index = new IdentityHashMap<>(2 * union.size());
+        int numberOfUnionFront = 0;
+        for(int p = 0; p < union.size(); p++){
+            index.put(union.get(p), p);
+            if(ranking.isNonDominated(p)){
+                numberOfUnionFront++;
+            }
+        }
+        
+        Solution[] solutions = new Solution[newPopulation.size()];
+        boolean[] isFront = new boolean[newPopulation.size()];
+        int numberOfFront = 0;
+        for(int i = 0; i < solutions.length; i++){
+            solutions[i] = newPopulation.get(i);
+            Integer p = index.get(solutions[i]);
+            if(p == null){
+                return;
+            }
+            if(ranking.isNonDominated(p)){
+                isFront[i] = true;
+                numberOfFront++;
+            }
+        }
+        
+        if(numberOfFront < solutions.length && numberOfFront < numberOfUnionFront){
+            // Some dominated solutions may have lost their dominators
+            return;
+        }
+        if(numberOfFront < solutions.length){
+            // Every non-dominated solution of the union is in the population, 
+            // so a dominated solution of the union is still dominated, unless
+            // it is only dominated by being equal to a non-dominated one. In
+            // each group of equal solutions, the last one of the population 
+            // is non-dominated.
+            Map<Row, Integer> lastOfGroup = new HashMap<>(2 * numberOfUnionFront);
+            for(int p = 0; p < union.size(); p++){
+                if(ranking.isNonDominated(p)){
+                    lastOfGroup.put(new Row(objectives, p), -1);
+                }
+            }
+            for(int i = 0; i < solutions.length; i++){
+                Row row = new Row(objectives, index.get(solutions[i]));
+                if(lastOfGroup.containsKey(row)){
+                    lastOfGroup.put(row, i);
+                }
+            }
+            isFront = new boolean[solutions.length];
+            for(int i : lastOfGroup.values()){
+                if(i >= 0){
+                    isFront[i] = true;
+                }
+            }
+        }
+        population = solutions;
+        front = isFront;
+    }
+    
+    /**
+     * Returns the non-dominated solutions of a population, as the first front 
+     * of a <code>Ranking</code> (solutions equal to a strictly non-dominated 
+     * solution are included). If the population is the one given to 
+     * <code>setPopulation</code>, its strictly non-dominated solutions are 
+     * already known and no solutions are compared.
+     * @param population The population
+     * @return The non-dominated solutions, in the order of the population
+     */
+    public SolutionSet getFront(SolutionSet population) {
+        boolean[] isFront;
+        ObjectiveMatrix objectives;
+        if(isPopulation(population)){
+            isFront = front;
+            objectives = new ObjectiveMatrix(population);
+        }
+        else{
+            StrictlyNonDominatedSet strictlyNDS = new StrictlyNonDominatedSet(population);
+            isFront = new boolean[population.size()];
+            for(int p = 0; p < isFront.length; p++){
+                isFront[p] = strictlyNDS.isNonDominated(p);
+            }
+            objectives = strictlyNDS.getObjectiveMatrix();
+        }
+        
+        Set<Row> frontRows = new HashSet<>(2 * population.size());
+        for(int p = 0; p < isFront.length; p++){
+            if(isFront[p]){
+                frontRows.add(new Row(objectives, p));
+            }
+        }
+        SolutionSet result = new SolutionSet(population.size());
+        for(int p = 0; p < population.size(); p++){
+            if(isFront[p] || frontRows.contains(new Row(objectives, p))){
+                result.add(population.get(p));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * @return True if the solution set is the population
+     */
+    private boolean isPopulation(SolutionSet solutionSet) {
+        return population != null && solutionSet.size() == population.length && 
+                startsWithPopulation(solutionSet);
+    }
+    
+    /**
+     * @return True if the first solutions of the union are the population
+     */
+    private boolean startsWithPopulation(SolutionSet union) {
+        if(population == null || union.size() < population.length){
+            return false;
+        }
+        for(int i = 0; i < population.length; i++){
+            if(union.get(i) != population[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Row of an objective matrix, compared by the objective values. Two rows
+     * are equal when <code>StrictlyNonDominatedSet</code> considers them 
+     * equal (same objectives and no dominance by the constraints)
+     */
+    private static class Row {
+        private final ObjectiveMatrix objectives;
+        private final int p;
+        private final int hash;
+        
+        Row(ObjectiveMatrix objectives, int p) {
+            this.objectives = objectives;
+            this.p = p;
+            long bits = 1;
+            for(int i = 0; i < objectives.getNumberOfObjectives(); i++){
+                bits = 31 * bits + Double.doubleToLongBits(objectives.get(p, i));
+            }
+            this.hash = (int) (bits ^ (bits >>> 32));
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+        
+        @Override
+        public boolean equals(Object object) {
+            if(!(object instanceof Row)){
+                return false;
+            }
+            Row row = (Row) object;
+            return p == row.p || objectives.isEqual(p, row.p) && objectives.compareViolation(p, row.p) == 0;
+        }
+    }
+}
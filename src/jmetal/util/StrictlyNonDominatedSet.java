@@ -24,11 +24,11 @@ package jmetal.util;
 import java.util.ArrayList;
 import java.util.Arrays;
 import jmetal.core.SolutionSet;
-import jmetal.util.comparators.DominanceComparator;
-import jmetal.util.comparators.OverallConstraintViolationComparator;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import jmetal.core.Solution;
 
 /**
@@ -47,18 +47,36 @@ public class StrictlyNonDominatedSet {
     
     // Set of strictly dominated solutions
     private List<Solution> dominatedSet;
+    
+    // Objectives of the ranked solutions
+    private ObjectiveMatrix objectiveMatrix;
+    
+    // Dominance situation of each solution (-1 for dominated solutions)
+    private int[] dominance;
+    
+    // Number of dominance checks made to rank the set
+    private long numberOfDominanceChecks = 0;
 
     /** 
      * Constructor.
      * @param solutionSet The <code>SolutionSet</code> to be ranked.
      */       
     public StrictlyNonDominatedSet(SolutionSet solutionSet) {     
-        // Comparator for dominance checking
-        Comparator dominance_ = new DominanceComparator();
-        
-        // Comparator for Overal Constraint Violation Comparator
-        Comparator constraint_ = new OverallConstraintViolationComparator();
-
+        this(solutionSet, null, 0);
+    }
+    
+    /** 
+     * Constructor for a set whose first <code>numberOfKnown</code> solutions 
+     * were already ranked (as a set), used by 
+     * <code>StrictlyNonDominatedArchive</code>. The known dominated solutions 
+     * remain dominated, so they are not compared, and the known non-dominated
+     * solutions are not compared with each other.
+     * @param solutionSet The <code>SolutionSet</code> to be ranked.
+     * @param knownFront True for the known solutions that are strictly 
+     * non-dominated among the known solutions (null if there are none)
+     * @param numberOfKnown Number of known solutions
+     */       
+    StrictlyNonDominatedSet(SolutionSet solutionSet, boolean[] knownFront, int numberOfKnown) {     
         dominatedSet = new ArrayList<>();
         nonDominatedSet = new ArrayList<>();
         
@@ -67,17 +85,172 @@ public class StrictlyNonDominatedSet {
          * 1 for solutions non-dominated (all of them on the begining) and -1
          * for equal or dominated solution respectively.
          */
-        int[] dominance = new int[solutionSet.size()];
+        dominance = new int[solutionSet.size()];
         // All solutions are dominated on the begining.
         Arrays.fill(dominance, 1);
         
-        for (int p = 0; p < (solutionSet.size()-1); p++) {
+        // Solutions that still have to be ranked
+        int[] candidates = new int[solutionSet.size()];
+        int numberOfCandidates = 0;
+        for (int p = 0; p < solutionSet.size(); p++) {
+            if (p < numberOfKnown && !knownFront[p]) {
+                dominance[p] = -1;
+            }
+            else {
+                candidates[numberOfCandidates++] = p;
+            }
+        }
+        candidates = Arrays.copyOf(candidates, numberOfCandidates);
+        
+        // Packed copy of the objectives, built once for all the comparisons
+        ObjectiveMatrix objectives = new ObjectiveMatrix(solutionSet);
+        objectiveMatrix = objectives;
+        
+        if(objectives.hasRegularViolations()){
+            // Any feasible solution dominates the infeasible ones, so the 
+            // solutions are split by feasibility and only one of the parts 
+            // is ranked
+            int[] feasible = new int[candidates.length];
+            int[] infeasible = new int[candidates.length];
+            int numberOfFeasible = 0;
+            int numberOfInfeasible = 0;
+            for (int p : candidates) {
+                if(objectives.getViolation(p) == 0){
+                    feasible[numberOfFeasible++] = p;
+                }
+                else{
+                    infeasible[numberOfInfeasible++] = p;
+                }
+            }
+            if(numberOfFeasible > 0){
+                for (int k = 0; k < numberOfInfeasible; k++) {
+                    dominance[infeasible[k]] = -1;
+                }
+                rankFeasible(objectives, Arrays.copyOf(feasible, numberOfFeasible), numberOfKnown, dominance);
+            }
+            else{
+                rankInfeasible(objectives, candidates, numberOfKnown, dominance);
+            }
+        }
+        else{
+            pairwiseComparison(objectives, candidates, numberOfKnown, false, dominance);
+        }
+        
+        for (int p = 0; p < dominance.length; p++) {
+            if (dominance[p] == -1) {
+                dominatedSet.add(solutionSet.get(p));
+            }
+            else{
+                nonDominatedSet.add(solutionSet.get(p));
+            }
+        }
+    }
+    
+    /**
+     * Ranks feasible solutions by the dominance relation only. The sweep 
+     * methods apply to 2 or 3 objectives with no NaN, as the result of the 
+     * pairwise comparison then depends only on the objective values
+     * @param objectives Objectives of the <code>SolutionSet</code> to be ranked
+     * @param candidates Indexes of the feasible solutions (increasing)
+     * @param numberOfKnown The candidates with smaller indexes are not 
+     * compared with each other
+     * @param dominance Dominance situation of each solution (updated)
+     */
+    private void rankFeasible(ObjectiveMatrix objectives, int[] candidates, 
+                              int numberOfKnown, int[] dominance) {
+        boolean sweepable = !objectives.hasNaN();
+        if(sweepable && objectives.getNumberOfObjectives() == 2){
+            sweep2D(objectives, candidates, dominance);
+        }
+        else if(sweepable && objectives.getNumberOfObjectives() == 3){
+            sweep3D(objectives, candidates, dominance);
+        }
+        else{
+            pairwiseComparison(objectives, candidates, numberOfKnown, true, dominance);
+        }
+    }
+    
+    /**
+     * Ranks infeasible solutions. Only the solutions with the smallest 
+     * violation are not dominated by the violation, and the objectives of
+     * infeasible solutions are not compared, so among them only the repeated
+     * points are dominated (all but the last one of each group)
+     * @param objectives Objectives of the <code>SolutionSet</code> to be ranked
+     * @param candidates Indexes of the infeasible solutions (increasing)
+     * @param numberOfKnown The candidates with smaller indexes are not 
+     * compared with each other
+     * @param dominance Dominance situation of each solution (updated)
+     */
+    private void rankInfeasible(ObjectiveMatrix objectives, int[] candidates, 
+                                int numberOfKnown, int[] dominance) {
+        double maxViolation = Double.NEGATIVE_INFINITY;
+        for (int p : candidates) {
+            maxViolation = Math.max(maxViolation, objectives.getViolation(p));
+        }
+        int[] least = new int[candidates.length];
+        int numberOfLeast = 0;
+        for (int p : candidates) {
+            if(objectives.getViolation(p) == maxViolation){
+                least[numberOfLeast++] = p;
+            }
+            else{
+                dominance[p] = -1;
+            }
+        }
+        // Identical points are consecutive in the lexicographic order (NaN
+        // is not equal to any value, so those points are never grouped)
+        Integer[] order = lexicographicOrder(objectives, Arrays.copyOf(least, numberOfLeast));
+        int k = 0;
+        while(k < order.length){
+            int equalEnd = k + 1;
+            while(equalEnd < order.length && objectives.isEqual(order[k], order[equalEnd])){
+                equalEnd++;
+            }
+            // The known solutions are not compared with each other
+            if(order[equalEnd - 1] >= numberOfKnown){
+                markGroup(order, k, equalEnd, false, dominance);
+            }
+            k = equalEnd;
+        }
+    }
+    
+    /**
+     * Compares every pair of solutions of the set, taking into account the 
+     * constraint violation and the dominance relation (as the 
+     * <code>OverallConstraintViolationComparator</code> and the 
+     * <code>DominanceComparator</code> do). O(N^2 M)
+     * @param objectives Objectives of the <code>SolutionSet</code> to be ranked
+     * @param candidates Indexes of the solutions to compare (increasing)
+     * @param numberOfKnown The candidates with smaller indexes are not 
+     * compared with each other
+     * @param feasible True if the candidates are known to be feasible (the 
+     * violations are not compared)
+     * @param dominance Dominance situation of each solution (updated)
+     */
+    private void pairwiseComparison(ObjectiveMatrix objectives, int[] candidates, 
+                                    int numberOfKnown, boolean feasible, int[] dominance) {
+        long checks = 0;
+        for (int i = 0; i < (candidates.length-1); i++) {
+            int p = candidates[i];
             
             // For all q individuals , calculate if p dominates q or vice versa
-            for (int q = p+1; q < solutionSet.size(); q++) {
-                int flagDominate = constraint_.compare(solutionSet.get(p),solutionSet.get(q));
-                if (flagDominate == 0) {
-                    flagDominate = dominance_.compare(solutionSet.get(p),solutionSet.get(q));
+            for (int j = i+1; j < candidates.length; j++) {
+                int q = candidates[j];
+                if (q < numberOfKnown) {
+                    continue;
+                }
+                checks++;
+                int flagDominate;
+                if (feasible) {
+                    flagDominate = objectives.dominance(p, q);
+                }
+                else {
+                    flagDominate = objectives.compareViolation(p, q);
+                    // The objectives are only compared if no solution violates constraints
+                    if (flagDominate == 0 && !(objectives.getViolation(p) < 0 || 
+                                               objectives.getViolation(q) < 0)) {
+                        flagDominate = objectives.dominance(p, q);
+                    }
                 }
                 // p dominates q
                 if (flagDominate == -1){
@@ -89,36 +262,146 @@ public class StrictlyNonDominatedSet {
                         dominance[p] = -1;
                     }
                     // No dominance relation, but p == q in the objective space.
-                    else if(isSolutionEqual(solutionSet.get(p),solutionSet.get(q))){
+                    else if(objectives.isEqual(p, q)){
                             dominance[p] = -1;
                     }
                 }
             } // If nobody dominates p, p belongs to the first front
         }
-        for (int p = 0; p < dominance.length; p++) {
-            if (dominance[p] == -1) {
-                dominatedSet.add(solutionSet.get(p));
+        numberOfDominanceChecks += checks;
+    }
+    
+    /**
+     * Sorts the indexes of the solutions lexicographically by their objectives.
+     * Ties are broken by the index, so identical points are sorted in the
+     * order they appear in the set
+     * @param objectives Objective values
+     * @param candidates Indexes of the solutions to sort
+     * @return The sorted indexes
+     */
+    private Integer[] lexicographicOrder(final ObjectiveMatrix objectives, int[] candidates) {
+        Integer[] order = new Integer[candidates.length];
+        for (int k = 0; k < order.length; k++) {
+            order[k] = candidates[k];
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer p, Integer q) {
+                for (int i = 0; i < objectives.getNumberOfObjectives(); i++) {
+                    int flag = Double.compare(objectives.get(p, i), objectives.get(q, i));
+                    if(flag != 0){
+                        return flag;
+                    }
+                }
+                return p.compareTo(q);
             }
-            else{
-                nonDominatedSet.add(solutionSet.get(p));
+        });
+        return order;
+    }
+    
+    /**
+     * Marks the points of a group of identical points. If the group is not 
+     * dominated, only the last point (in the order of the set) is kept as 
+     * non-dominated, as the pairwise comparison does
+     * @param order Lexicographic order of the points
+     * @param from First position of the group in <code>order</code>
+     * @param to Position after the last point of the group
+     * @param isDominated True if the point of the group is dominated
+     * @param dominance Dominance situation of each solution (updated)
+     */
+    private void markGroup(Integer[] order, int from, int to, boolean isDominated, int[] dominance) {
+        // Each group is checked once against the points already swept
+        numberOfDominanceChecks++;
+        int last = isDominated ? to : to - 1;
+        for (int k = from; k < last; k++) {
+            dominance[order[k]] = -1;
+        }
+    }
+    
+    /**
+     * Sort-and-sweep filter for two objectives. O(N log N)
+     * @param objectives Objective values
+     * @param candidates Indexes of the solutions to filter
+     * @param dominance Dominance situation of each solution (updated)
+     */
+    private void sweep2D(ObjectiveMatrix objectives, int[] candidates, int[] dominance) {
+        Integer[] order = lexicographicOrder(objectives, candidates);
+        
+        // Minimum f2 among the points with a smaller f1
+        double minF2 = Double.POSITIVE_INFINITY;
+        int groupStart = 0;
+        while(groupStart < order.length){
+            // Points with the same f1 (sorted by f2)
+            int groupEnd = groupStart + 1;
+            while(groupEnd < order.length && 
+                    objectives.get(order[groupEnd], 0) == objectives.get(order[groupStart], 0)){
+                groupEnd++;
+            }
+            double groupMinF2 = objectives.get(order[groupStart], 1);
+            int k = groupStart;
+            while(k < groupEnd){
+                // Points identical to the k-th point
+                int equalEnd = k + 1;
+                double f2 = objectives.get(order[k], 1);
+                while(equalEnd < groupEnd && objectives.get(order[equalEnd], 1) == f2){
+                    equalEnd++;
+                }
+                boolean isDominated = minF2 <= f2 || f2 > groupMinF2;
+                markGroup(order, k, equalEnd, isDominated, dominance);
+                k = equalEnd;
             }
+            minF2 = Math.min(minF2, groupMinF2);
+            groupStart = groupEnd;
         }
     }
     
     /**
-     * Check if two solutions are equal in the objective space
-     * @param solution1 First input solution 
-     * @param solution2 Second input solution
-     * @return True if they are equal and false otherwise
+     * Sweep filter for three objectives. The points are visited in 
+     * lexicographic order, so every point dominating the current one was
+     * already visited. The non-dominated (f2, f3) staircase of the visited 
+     * points is kept in a tree. O(N log N)
+     * @param objectives Objective values
+     * @param candidates Indexes of the solutions to filter
+     * @param dominance Dominance situation of each solution (updated)
      */
-    private boolean isSolutionEqual(Solution solution1, Solution solution2){
-        for (int i = 0; i < solution1.getNumberOfObjectives(); i++) {
-            if(solution1.getObjective(i) != solution2.getObjective(i))
-                return false;
+    private void sweep3D(ObjectiveMatrix objectives, int[] candidates, int[] dominance) {
+        Integer[] order = lexicographicOrder(objectives, candidates);
+        
+        // Staircase: f2 increasing and f3 strictly decreasing
+        TreeMap<Double, Double> staircase = new TreeMap<>();
+        int k = 0;
+        while(k < order.length){
+            int equalEnd = k + 1;
+            while(equalEnd < order.length && objectives.isEqual(order[k], order[equalEnd])){
+                equalEnd++;
+            }
+            double y = objectives.get(order[k], 1);
+            double z = objectives.get(order[k], 2);
+            // The entry with the largest f2 <= y has the smallest f3 among them
+            Map.Entry<Double, Double> entry = staircase.floorEntry(y);
+            boolean isDominated = entry != null && entry.getValue() <= z;
+            markGroup(order, k, equalEnd, isDominated, dominance);
+            if(!isDominated){
+                // Remove the entries dominated by the new point in the (f2, f3) plane
+                entry = staircase.ceilingEntry(y);
+                while(entry != null && entry.getValue() >= z){
+                    staircase.remove(entry.getKey());
+                    entry = staircase.higherEntry(entry.getKey());
+                }
+                staircase.put(y, z);
+            }
+            k = equalEnd;
         }
-        return true;
     }
-
+    
+    /**
+     * @return The number of dominance checks made to rank the set (pairs 
+     * compared or, for the sweeps, groups of identical points checked)
+     */
+    public long getNumberOfDominanceChecks() {
+        return numberOfDominanceChecks;
+    }
+    
     /**
      * @return the nonDominatedSet
      */
@@ -132,4 +415,48 @@ public class StrictlyNonDominatedSet {
     public List<Solution> getDominatedSet() {
         return dominatedSet;
     }
+
+    /**
+     * @return the objectives of the ranked solutions (in the order of the 
+     * input <code>SolutionSet</code>)
+     */
+    public ObjectiveMatrix getObjectiveMatrix() {
+        return objectiveMatrix;
+    }
+    
+    /**
+     * @return the index of each solution of the non-dominated set in the 
+     * input <code>SolutionSet</code>
+     */
+    public int[] getNonDominatedIndexes() {
+        return getIndexes(true, nonDominatedSet.size());
+    }
+
+    /**
+     * @return the index of each solution of the dominated set in the input 
+     * <code>SolutionSet</code>
+     */
+    public int[] getDominatedIndexes() {
+        return getIndexes(false, dominatedSet.size());
+    }
+    
+    // Both sets are built in the order of the input SolutionSet
+    private int[] getIndexes(boolean nonDominated, int size) {
+        int[] indexes = new int[size];
+        int k = 0;
+        for (int p = 0; p < dominance.length; p++) {
+            if (isNonDominated(p) == nonDominated) {
+                indexes[k++] = p;
+            }
+        }
+        return indexes;
+    }
+    
+    /**
+     * @param p Index of a solution in the input <code>SolutionSet</code>
+     * @return True if the solution is strictly non-dominated
+     */
+    boolean isNonDominated(int p) {
+        return dominance[p] != -1;
+    }
 } 
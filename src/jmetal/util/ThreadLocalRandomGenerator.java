@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util;
+
+import java.lang.reflect.Field;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Random generator that delegates to a generator of the calling thread. It 
+ * lets concurrent runs (e.g., the islands of an island model or the runs of a
+ * study) share <code>PseudoRandom</code> while each run draws from its own 
+ * sequence. The threads without a generator use the default one 
+ * (synchronized).
+ * 
+ * The generator of this class is only installed in <code>PseudoRandom</code>
+ * while some run is bound to it. The first run saves the generator that 
+ * <code>PseudoRandom</code> had, which is the default generator meanwhile (so 
+ * the other code keeps drawing from it), and the last run puts it back.
+ * @author luiz
+ */
+public class ThreadLocalRandomGenerator implements IRandomGenerator {
+    
+    // Generator installed in PseudoRandom while there are bound runs
+    private static final ThreadLocalRandomGenerator router = new ThreadLocalRandomGenerator(null);
+    
+    // Number of runs bound to the router
+    private static int numberOfRuns = 0;
+    
+    // Generator of PseudoRandom before the router was installed
+    private static IRandomGenerator savedGenerator = null;
+    
+    // Generator set in PseudoRandom (null if it can not be read)
+    private static final Field generatorField = getStaticField(PseudoRandom.class, "random_");
+    
+    private final ThreadLocal<IRandomGenerator> generators = new ThreadLocal<>();
+    
+    // Used by the threads without a generator
+    private volatile IRandomGenerator defaultGenerator;
+    
+    /**
+     * Constructor
+     * @param defaultGenerator Generator of the threads without a generator of 
+     * their own
+     */
+    public ThreadLocalRandomGenerator(IRandomGenerator defaultGenerator) {
+        this.defaultGenerator = defaultGenerator;
+    }
+    
+    /**
+     * Binds a run of the calling thread to its generator: the code that only 
+     * knows <code>PseudoRandom</code> (e.g., the jMetal operators) draws from
+     * it in this thread until <code>unbind</code> is called. The router is 
+     * installed in <code>PseudoRandom</code> by the first run (or again, if 
+     * <code>PseudoRandom</code> received another generator meanwhile)
+     * @param generator Generator of the run
+     */
+    public static synchronized void bind(IRandomGenerator generator) {
+        if(numberOfRuns == 0 || isReplaced()){
+            savedGenerator = getValue(generatorField);
+            // Without a generator, PseudoRandom uses its own default one
+            IRandomGenerator shared = savedGenerator != null ? savedGenerator : 
+                    getValue(getStaticField(PseudoRandom.class, "defaultGenerator_"));
+            router.defaultGenerator = shared != null ? shared : 
+                    new SplitMixRandomGenerator(SplitMixRandomGenerator.newSeed());
+            PseudoRandom.setRandomGenerator(router);
+        }
+        numberOfRuns++;
+        router.setGenerator(generator);
+    }
+    
+    /**
+     * Unbinds the run of the calling thread. The last run puts back the 
+     * generator that <code>PseudoRandom</code> had before the first one (unless
+     * <code>PseudoRandom</code> received another generator meanwhile)
+     */
+    public static synchronized void unbind() {
+        router.setGenerator(null);
+        if(--numberOfRuns == 0){
+            if(!isReplaced()){
+                PseudoRandom.setRandomGenerator(savedGenerator);
+            }
+            savedGenerator = null;
+        }
+    }
+    
+    /**
+     * @return True if <code>PseudoRandom</code> received another generator 
+     * after the router was installed (PseudoRandom has no getter, so its 
+     * field is read; if it can not be read, it is assumed it did not)
+     */
+    private static boolean isReplaced() {
+        return generatorField != null && getValue(generatorField) != router;
+    }
+    
+    private static Field getStaticField(Class<?> type, String name) {
+        try{
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        }
+        catch(ReflectiveOperationException | RuntimeException e){
+            Logger.getLogger(ThreadLocalRandomGenerator.class.getName()).log(Level.FINE, 
+                    "Can not read " + type.getName() + "." + name, e);
+            return null;
+        }
+    }
+    
+    private static IRandomGenerator getValue(Field field) {
+        try{
+            return field == null ? null : (IRandomGenerator) field.get(null);
+        }
+        catch(ReflectiveOperationException | RuntimeException e){
+            return null;
+        }
+    }
+    
+    /**
+     * Sets the generator of the calling thread
+     * @param generator The generator (null to use the default one)
+     */
+    public void setGenerator(IRandomGenerator generator) {
+        if(generator == null){
+            generators.remove();
+        }
+        else{
+            generators.set(generator);
+        }
+    }
+    @Override
+    public int nextInt(int upperBound) {
+        IRandomGenerator generator = generators.get();
+        if(generator == null){
+            IRandomGenerator shared = defaultGenerator;
+            synchronized(shared){
+                return shared.nextInt(upperBound);
+            }
+        }
+        return generator.nextInt(upperBound);
+    }
+
+    @Override
+    public double nextDouble() {
+        IRandomGenerator generator = generators.get();
+        if(generator == null){
+            IRandomGenerator shared = defaultGenerator;
+            synchronized(shared){
+                return shared.nextDouble();
+            }
+        }
+        return generator.nextDouble();
+    }
+
+    @Override
+    public int nextInt(int lowerBound, int upperBound) {
+        IRandomGenerator generator = generators.get();
+        if(generator == null){
+            IRandomGenerator shared = defaultGenerator;
+            synchronized(shared){
+                return shared.nextInt(lowerBound, upperBound);
+            }
+        }
+        return generator.nextInt(lowerBound, upperBound);
+    }
+
+    @Override
+    public double nextDouble(double lowerBound, double upperBound) {
+        IRandomGenerator generator = generators.get();
+        if(generator == null){
+            IRandomGenerator shared = defaultGenerator;
+            synchronized(shared){
+                return shared.nextDouble(lowerBound, upperBound);
+            }
+        }
+        return generator.nextDouble(lowerBound, upperBound);
+    }
+}
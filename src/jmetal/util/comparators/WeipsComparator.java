@@ -1,9 +1,13 @@
 package jmetal.util.comparators;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import jmetal.core.Solution;
-import jmetal.util.PseudoRandom;
+import jmetal.core.SolutionSet;
+import jmetal.util.IRandomGenerator;
+import jmetal.util.ObjectiveMatrix;
+import jmetal.util.PseudoRandomGenerator;
 
 /**
  * This class implements a solution comparator taking into account the violation constraints
@@ -14,6 +18,34 @@ import jmetal.util.PseudoRandom;
 public class WeipsComparator implements Comparator {
     IConstraintViolationComparator violationConstraintComparator_ ;
     private List<double[]> weightMatrix;
+    
+    // Generator of the weight vectors drawn
+    private final IRandomGenerator random;
+    
+    /**
+     * Maximum number of cells of the score cache. The cache is filled with NaN
+     * at each bind, so it is only kept when the weight matrix has few rows 
+     * (and the cells are read several times); otherwise, the weighted sums are
+     * computed from the objective matrix.
+     */
+    private static final int MAX_CACHED_SCORES = 1 << 16;
+    
+    /**
+     * Score cache of the bound solutions (null if the weight matrix is too 
+     * big). The cell w * size + p stores the weighted sum of the p-th bound 
+     * solution for the w-th weight vector, or NaN if it was not computed since
+     * the solutions were bound.
+     */
+    private double[] scores;
+    
+    // Objectives of the bound solutions
+    private ObjectiveMatrix boundObjectives;
+    
+    // Bound solutions (in the order of the objective matrix)
+    private SolutionSet boundSet;
+    
+    // Number of calls to compare
+    private long numberOfComparisons = 0;
 
     /** Constructor */
     public WeipsComparator(List<double[]> weightMatrix) {
@@ -22,8 +54,21 @@ public class WeipsComparator implements Comparator {
 
     /** Constructor */
     public WeipsComparator(IConstraintViolationComparator constraintComparator, List<double[]> weightMatrix) {
+        this(constraintComparator, weightMatrix, new PseudoRandomGenerator());
+    }
+
+    /** 
+     * Constructor
+     * @param constraintComparator Comparator of the constraint violations
+     * @param weightMatrix Weight matrix (null to draw random weights)
+     * @param random Generator of the run (the comparator is used by a single
+     * thread)
+     */
+    public WeipsComparator(IConstraintViolationComparator constraintComparator, List<double[]> weightMatrix, 
+                           IRandomGenerator random) {
         violationConstraintComparator_ = constraintComparator ;
         this.weightMatrix = weightMatrix;
+        this.random = random;
     }
 
     /**
@@ -36,6 +81,7 @@ public class WeipsComparator implements Comparator {
      */
     @Override
     public int compare(Object object1, Object object2){
+        numberOfComparisons++;
         if (object1 == null) {
             return 1;
         }
@@ -54,6 +100,31 @@ public class WeipsComparator implements Comparator {
         return weightedSumComparison(solution1, solution2) ;
     }
 
+    /**
+     * Compares two bound solutions by their indexes in the objective matrix 
+     * given to <code>bindSolutions</code>. The result and the random numbers 
+     * drawn are the same of <code>compare</code> for the two solutions, but 
+     * the weighted sums are read from the objective matrix (or the score 
+     * cache) and no map is searched.
+     * @param index1 Index of the first solution
+     * @param index2 Index of the second solution
+     * @return -1, or 0, or 1 if the first solution is better than the second,
+     * both are equal, or the second is better, respectively.
+     */
+    public int compare(int index1, int index2){
+        numberOfComparisons++;
+        Solution solution1 = boundSet.get(index1);
+        Solution solution2 = boundSet.get(index2);
+        if (violationConstraintComparator_.needToCompare(solution1, solution2)){
+            return violationConstraintComparator_.compare(solution1, solution2) ;
+        }
+        if(weightMatrix == null){
+            return weightedSumComparison(solution1, solution2);
+        }
+        int row = random.nextInt(0, weightMatrix.size() - 1);
+        return compareSums(getScore(row, index1), getScore(row, index2));
+    }
+
     /**
      * Compare two solutions based on the weighted sum of their objectives
      * @param solution1 First input solution
@@ -65,13 +136,32 @@ public class WeipsComparator implements Comparator {
         double sumSolution1 = 0 ;
         double sumSolution2 = 0 ;
         
-        double[] weightVector = getWeightVector(solution1.getNumberOfObjectives());
+        int numberOfObjectives = solution1.getNumberOfObjectives();
+        double[] weightVector;
         
-        for (int i = 0; i < solution1.getNumberOfObjectives(); i++) {
+        if(weightMatrix == null){
+            weightVector = getWeightVector(numberOfObjectives);
+        }
+        else{
+            weightVector = weightMatrix.get(random.nextInt(0, weightMatrix.size() - 1));
+        }
+        
+        for (int i = 0; i < numberOfObjectives; i++) {
             sumSolution1 += weightVector[i] * solution1.getObjective(i);
             sumSolution2 += weightVector[i] * solution2.getObjective(i);
         }
         
+        return compareSums(sumSolution1, sumSolution2);
+    }
+    
+    /**
+     * Compare two weighted sums
+     * @param sumSolution1 Weighted sum of the first solution
+     * @param sumSolution2 Weighted sum of the second solution
+     * @return -1, or 0, or 1 if the first sum is smaller, both are equal, or
+     * the first sum is greater, respectively.
+     */
+    private int compareSums(double sumSolution1, double sumSolution2) {
         if (sumSolution1 < sumSolution2) {
             return -1;
         } else if (sumSolution1 > sumSolution2) {
@@ -82,28 +172,95 @@ public class WeipsComparator implements Comparator {
     }
 
     /**
-     * Select a random weight vector from the weight matrix (if it is not null)
-     * or randomly generates the weight vector
+     * Randomly generates a weight vector (used when the weight matrix is null)
      * @param numObjectives Number of objectives defined by the problem
      * @return The weight vector
      */
     private double[] getWeightVector(int numObjectives) {
-        // If the weight matrix is null, the method generates a weight vector
-        if(weightMatrix == null){
-            double[] weightVector = new double[numObjectives];
-            double sum = 0;
-            
-            for(int i = 0; i < numObjectives; i++){
-                weightVector[i] = PseudoRandom.randDouble();
-                sum += weightVector[i];
-            }
-            // Normalize the weights to sum to one
-            for(int i = 0; i < numObjectives; i++){
-                weightVector[i] /= sum;
+        double[] weightVector = new double[numObjectives];
+        double sum = 0;
+
+        for(int i = 0; i < numObjectives; i++){
+            weightVector[i] = random.nextDouble();
+            sum += weightVector[i];
+        }
+        // Normalize the weights to sum to one
+        for(int i = 0; i < numObjectives; i++){
+            weightVector[i] /= sum;
+        }
+        return weightVector;
+    }
+    
+    /**
+     * Returns the weighted sum of a bound solution, reading it from the score
+     * cache if it was computed since the solutions were bound
+     * @param row Index of the weight vector
+     * @param p Index of the solution in the objective matrix
+     * @return The weighted sum of the solution for the weight vector
+     */
+    private double getScore(int row, int p) {
+        if(scores == null){
+            return boundObjectives.weightedSum(p, weightMatrix.get(row));
+        }
+        int cell = row * boundObjectives.size() + p;
+        double score = scores[cell];
+        // NaN sums (of NaN objectives) are computed again, with the same result
+        if(Double.isNaN(score)){
+            score = boundObjectives.weightedSum(p, weightMatrix.get(row));
+            scores[cell] = score;
+        }
+        return score;
+    }
+    
+    /**
+     * Binds a set of solutions to the comparator. Until the next call, they 
+     * can be compared by their indexes with <code>compare(int, int)</code>, 
+     * which reads the objectives from the objective matrix. The result of the
+     * comparisons does not change. When the weight matrix is small, the 
+     * weighted sums computed are also kept in a score cache, whose memory 
+     * does not depend on the number of comparisons.
+     * @param solutionSet Solutions to bind (their objectives must not change
+     * while they are bound)
+     * @param objectives Objectives of the solutions (in the same order)
+     */
+    public void bindSolutions(SolutionSet solutionSet, ObjectiveMatrix objectives) {
+        boundSet = solutionSet;
+        boundObjectives = objectives;
+        if(weightMatrix != null && (long) weightMatrix.size() * objectives.size() <= MAX_CACHED_SCORES){
+            int numberOfCells = weightMatrix.size() * objectives.size();
+            if(scores == null || scores.length < numberOfCells){
+                scores = new double[numberOfCells];
             }
-            return weightVector;
+            Arrays.fill(scores, 0, numberOfCells, Double.NaN);
+        }
+        else{
+            scores = null;
         }
-        // Otherwise randomly select a row from the matrix
-        return weightMatrix.get(PseudoRandom.randInt(0, weightMatrix.size() - 1));
+    }
+    
+    /**
+     * Binds a set of solutions to the comparator
+     * @param solutionSet Solutions to bind (their objectives must not change
+     * while they are bound)
+     */
+    public void bindSolutions(SolutionSet solutionSet) {
+        bindSolutions(solutionSet, new ObjectiveMatrix(solutionSet));
+    }
+    
+    /**
+     * @return The number of comparisons made by the comparator (it is not 
+     * thread-safe, so the comparisons are made by a single thread)
+     */
+    public long getNumberOfComparisons() {
+        return numberOfComparisons;
+    }
+    
+    /**
+     * Releases the bound solutions and the score matrix
+     */
+    public void unbindSolutions() {
+        boundObjectives = null;
+        boundSet = null;
+        scores = null;
     }
 }
@@ -0,0 +1,120 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util.parallel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.problems.ProblemFactory;
+import jmetal.util.JMException;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * Stand-in worker process for the <code>ProcessEvaluator</code>, evaluating a
+ * jMetal problem without constraints (e.g., ZDT and DTLZ). Usage:
+ * <pre>
+ * java jmetal.util.parallel.EvaluationWorker problemName [numberOfVariables [numberOfObjectives]]
+ * </pre>
+ * @author luiz
+ */
+public class EvaluationWorker {
+    
+    public static void main(String[] args) throws IOException, JMException, ClassNotFoundException {
+        if(args.length < 1 || args.length > 3){
+            System.err.println("Usage: EvaluationWorker problemName [numberOfVariables [numberOfObjectives]]");
+            System.exit(1);
+        }
+        Object[] params = new Object[args.length];
+        params[0] = "Real";
+        for (int i = 1; i < args.length; i++) {
+            params[i] = Integer.valueOf(args[i]);
+        }
+        Problem problem = (new ProblemFactory()).getProblem(args[0], params);
+        if(problem.getNumberOfConstraints() > 0){
+            System.err.println("EvaluationWorker only evaluates problems without constraints");
+            System.exit(1);
+        }
+        
+        // The protocol uses the standard output only
+        PrintStream protocolOutput = System.out;
+        System.setOut(System.err);
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        BufferedWriter output = new BufferedWriter(new OutputStreamWriter(protocolOutput, StandardCharsets.UTF_8));
+        
+        Solution solution = new Solution(problem);
+        XReal variables = new XReal(solution);
+        StringBuilder line = new StringBuilder();
+        String request;
+        while((request = input.readLine()) != null){
+            if(!request.startsWith("EVAL ")){
+                output.write("ERROR unknown request: " + request);
+                output.newLine();
+                output.flush();
+                continue;
+            }
+            int numberOfSolutions = Integer.parseInt(request.substring(5).trim());
+            for (int p = 0; p < numberOfSolutions; p++) {
+                String variablesLine = input.readLine();
+                if(variablesLine == null){
+                    // The input was closed in the middle of a request
+                    output.write("ERROR expected " + numberOfSolutions + " solutions, got " + p);
+                    output.newLine();
+                    output.flush();
+                    System.exit(1);
+                }
+                String[] fields = variablesLine.trim().split("\\s+");
+                line.setLength(0);
+                try{
+                    if(fields.length != variables.getNumberOfDecisionVariables()){
+                        throw new JMException("expected " + variables.getNumberOfDecisionVariables() + 
+                                              " variables, got " + fields.length);
+                    }
+                    for (int i = 0; i < fields.length; i++) {
+                        variables.setValue(i, Double.parseDouble(fields[i]));
+                    }
+                    problem.evaluate(solution);
+                    for (int i = 0; i < problem.getNumberOfObjectives(); i++) {
+                        if(i > 0){
+                            line.append(' ');
+                        }
+                        line.append(solution.getObjective(i));
+                    }
+                }
+                catch(JMException | NumberFormatException e){
+                    line.setLength(0);
+                    line.append("ERROR ").append(e.getMessage());
+                }
+                output.write(line.toString());
+                output.newLine();
+            }
+            output.flush();
+        }
+    }
+}
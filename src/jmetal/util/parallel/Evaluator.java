@@ -0,0 +1,61 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util.parallel;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+
+/**
+ * Evaluates the objectives and the constraints of batches of solutions
+ * @author luiz
+ */
+public interface Evaluator {
+    
+    /**
+     * Evaluates the objectives and the constraints of each solution of the
+     * list. The method returns only when all the solutions are evaluated. It
+     * may be called by several threads at the same time
+     * @param solutions Solutions to evaluate
+     * @throws JMException If a solution can not be evaluated
+     */
+    void evaluate(List<Solution> solutions) throws JMException;
+    
+    /**
+     * @return The number of solutions evaluated at the same time
+     */
+    int getParallelism();
+    
+    /**
+     * @return An executor for tasks that call <code>evaluate</code> (e.g., 
+     * the evaluations of the steady-state mode)
+     */
+    Executor getExecutor();
+    
+    /**
+     * Releases the resources owned by the evaluator
+     */
+    void shutdown();
+}
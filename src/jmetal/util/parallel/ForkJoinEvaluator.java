@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util.parallel;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+
+/**
+ * Evaluates batches of solutions (objectives and constraints) on a fork-join 
+ * pool. The evaluation does not consume random numbers, so the result of a 
+ * batch does not depend on the number of threads used. The problem must be 
+ * thread-safe when more than one thread is used.
+ * @author luiz
+ */
+public class ForkJoinEvaluator implements Evaluator {
+    // Problem used to evaluate the solutions
+    private final Problem problem;
+    
+    // Pool running the evaluation tasks (null for the sequential mode)
+    private final ForkJoinPool pool;
+    
+    // True if the pool was created (and has to be shut down) by this object
+    private final boolean ownsPool;
+    
+    /**
+     * Constructor
+     * @param problem Problem used to evaluate the solutions
+     * @param numberOfThreads Number of threads used. For values smaller than 
+     * two, the solutions are evaluated sequentially by the calling thread
+     */
+    public ForkJoinEvaluator(Problem problem, int numberOfThreads) {
+        this.problem = problem;
+        if(numberOfThreads > 1){
+            this.pool = new ForkJoinPool(numberOfThreads);
+            this.ownsPool = true;
+        }
+        else{
+            this.pool = null;
+            this.ownsPool = false;
+        }
+    }
+    
+    /**
+     * Constructor
+     * @param problem Problem used to evaluate the solutions
+     * @param pool Pool shared with other components. It is not shut down by 
+     * this object
+     */
+    public ForkJoinEvaluator(Problem problem, ForkJoinPool pool) {
+        this.problem = problem;
+        this.pool = pool;
+        this.ownsPool = false;
+    }
+    
+    /**
+     * Evaluates the objectives and the constraints of each solution of the
+     * list. The method returns only when all the solutions are evaluated
+     * @param solutions Solutions to evaluate
+     * @throws JMException Exception thrown by the problem
+     */
+    @Override
+    public void evaluate(List<Solution> solutions) throws JMException {
+        if(pool == null || solutions.size() < 2){
+            evaluate(solutions, 0, solutions.size());
+            return;
+        }
+        try{
+            pool.invoke(new EvaluationTask(solutions, 0, solutions.size()));
+        }
+        catch(EvaluationException e){
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Sequentially evaluates the solutions in the range [from, to)
+     */
+    private void evaluate(List<Solution> solutions, int from, int to) throws JMException {
+        for(int i = from; i < to; i++){
+            problem.evaluate(solutions.get(i));
+            problem.evaluateConstraints(solutions.get(i));
+        }
+    }
+    
+    /**
+     * @return The number of threads used by the evaluator
+     */
+    @Override
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+    
+    /**
+     * @return The executor running the evaluations. In the sequential mode, 
+     * the tasks are run by the thread calling <code>execute</code>
+     */
+    @Override
+    public Executor getExecutor() {
+        if(pool != null){
+            return pool;
+        }
+        return new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                task.run();
+            }
+        };
+    }
+    
+    /**
+     * Releases the threads of the pool (only if it was created by this object)
+     */
+    @Override
+    public void shutdown() {
+        if(ownsPool){
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Task splitting the range of solutions until a single solution remains
+     */
+    @SuppressWarnings("serial")
+    private class EvaluationTask extends RecursiveAction {
+        private final List<Solution> solutions;
+        private final int from;
+        private final int to;
+
+        EvaluationTask(List<Solution> solutions, int from, int to) {
+            this.solutions = solutions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1){
+                try{
+                    evaluate(solutions, from, to);
+                }
+                catch(JMException e){
+                    throw new EvaluationException(e);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluationTask(solutions, from, middle), 
+                      new EvaluationTask(solutions, middle, to));
+        }
+    }
+    
+    /**
+     * Unchecked wrapper used to take a <code>JMException</code> out of the pool
+     */
+    @SuppressWarnings("serial")
+    private static class EvaluationException extends RuntimeException {
+        EvaluationException(JMException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized JMException getCause() {
+            return (JMException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2017 luiz.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package jmetal.util.parallel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+import jmetal.core.Problem;
+import jmetal.core.Solution;
+import jmetal.util.JMException;
+import jmetal.util.wrapper.XReal;
+
+/**
+ * Evaluates batches of solutions on a pool of long-lived worker processes 
+ * (e.g., wrappers of external simulators). A batch is split among the idle
+ * workers, and each part is sent to its worker through its standard input.
+ * The protocol is line based:
+ * <pre>
+ * request:  EVAL n
+ *           x_1 x_2 ... x_V          (n lines, one per solution)
+ * response: f_1 ... f_M g_1 ... g_C  (n lines, in the same order)
+ * </pre>
+ * where the constraints g_i are violated when negative (as in jMetal). A 
+ * response line starting with <code>ERROR</code> fails the request. A worker
+ * that fails or does not answer within the timeout is killed and restarted, 
+ * and the request is sent again (up to <code>MAX_ATTEMPTS</code> times). The
+ * workers are started when they are first used. The variables must have a 
+ * real encoding.
+ * @author luiz
+ */
+public class ProcessEvaluator implements Evaluator {
+    
+    private static final Logger logger = Logger.getLogger(ProcessEvaluator.class.getName());
+    
+    /** Number of times a request is sent before the evaluation fails */
+    public static final int MAX_ATTEMPTS = 3;
+    
+    // Command starting a worker
+    private final List<String> command;
+    private final int numberOfObjectives;
+    private final int numberOfConstraints;
+    
+    // Maximum time to answer a request, in milliseconds (0 for no limit)
+    private final long timeout;
+    
+    private final List<Worker> workers;
+    private final BlockingQueue<Worker> idleWorkers;
+    
+    // Threads sending the parts of the batches and talking to the workers
+    private final ExecutorService executor;
+    
+    /**
+     * Constructor
+     * @param problem Problem solved (only its numbers of objectives and 
+     * constraints are used)
+     * @param command Command starting a worker
+     * @param numberOfWorkers Number of worker processes
+     * @param timeout Maximum time to answer a request, in milliseconds (0 
+     * for no limit)
+     */
+    public ProcessEvaluator(Problem problem, List<String> command, int numberOfWorkers, long timeout) {
+        this.command = new ArrayList<>(command);
+        this.numberOfObjectives = problem.getNumberOfObjectives();
+        this.numberOfConstraints = problem.getNumberOfConstraints();
+        this.timeout = timeout;
+        this.workers = new ArrayList<>(numberOfWorkers);
+        this.idleWorkers = new LinkedBlockingQueue<>();
+        for (int i = 0; i < Math.max(1, numberOfWorkers); i++) {
+            Worker worker = new Worker(i);
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+        this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "weips-process-evaluator");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Evaluates the solutions, splitting the list among the workers
+     * @param solutions Solutions to evaluate
+     * @throws JMException If a part of the list could not be evaluated
+     */
+    @Override
+    public void evaluate(List<Solution> solutions) throws JMException {
+        int numberOfParts = Math.min(workers.size(), solutions.size());
+        if(numberOfParts <= 1){
+            if(!solutions.isEmpty()){
+                evaluatePart(solutions);
+            }
+            return;
+        }
+        List<Future<Void>> results = new ArrayList<>(numberOfParts);
+        for (int k = 0; k < numberOfParts; k++) {
+            final List<Solution> part = solutions.subList(k * solutions.size() / numberOfParts, 
+                                                          (k + 1) * solutions.size() / numberOfParts);
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws JMException {
+                    evaluatePart(part);
+                    return null;
+                }
+            }));
+        }
+        JMException error = null;
+        for (Future<Void> result : results) {
+            try{
+                result.get();
+            }
+            catch(ExecutionException e){
+                if(error == null){
+                    error = e.getCause() instanceof JMException ? (JMException) e.getCause() : 
+                            new JMException("Evaluation failed: " + e.getCause());
+                }
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new JMException("Interrupted while waiting for the workers");
+            }
+        }
+        if(error != null){
+            throw error;
+        }
+    }
+    
+    /**
+     * Evaluates a part of a batch on the next idle worker
+     */
+    private void evaluatePart(List<Solution> part) throws JMException {
+        Worker worker;
+        try{
+            worker = idleWorkers.take();
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new JMException("Interrupted while waiting for a worker");
+        }
+        try{
+            worker.evaluate(part);
+        }
+        finally{
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * @return The number of worker processes
+     */
+    @Override
+    public int getParallelism() {
+        return workers.size();
+    }
+
+    /**
+     * @return An executor whose threads wait for the workers
+     */
+    @Override
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Stops the worker processes
+     */
+    @Override
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.stop();
+        }
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Worker process (used by a single thread at a time)
+     */
+    private class Worker {
+        private final int index;
+        private Process process = null;
+        private BufferedWriter input;
+        private BufferedReader output;
+        
+        Worker(int index) {
+            this.index = index;
+        }
+        
+        /**
+         * Sends a request with the solutions and sets their objectives and 
+         * constraints from the response
+         */
+        void evaluate(List<Solution> solutions) throws JMException {
+            final String request = formatRequest(solutions);
+            final int numberOfLines = solutions.size();
+            String failure = null;
+            for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+                try{
+                    start();
+                    // The task keeps the streams of this process, even if it 
+                    // is restarted
+                    final BufferedWriter processInput = input;
+                    final BufferedReader processOutput = output;
+                    Future<double[][]> response = executor.submit(new Callable<double[][]>() {
+                        @Override
+                        public double[][] call() throws IOException {
+                            return exchange(processInput, processOutput, request, numberOfLines);
+                        }
+                    });
+                    double[][] values = timeout > 0 ? response.get(timeout, TimeUnit.MILLISECONDS) : 
+                                                      response.get();
+                    setValues(solutions, values);
+                    return;
+                }
+                catch(TimeoutException e){
+                    failure = "no response in " + timeout + " ms";
+                }
+                catch(ExecutionException e){
+                    failure = String.valueOf(e.getCause());
+                }
+                catch(IOException e){
+                    failure = String.valueOf(e);
+                }
+                catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    stop();
+                    throw new JMException("Interrupted while waiting for worker " + index);
+                }
+                logger.warning("Worker " + index + " failed (" + failure + "), restarting it");
+                stop();
+            }
+            throw new JMException("Worker " + index + " failed " + MAX_ATTEMPTS + " times: " + failure);
+        }
+        
+        private void start() throws IOException {
+            if(process != null){
+                return;
+            }
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+        
+        /**
+         * Kills the process (its pending read fails)
+         */
+        void stop() {
+            if(process != null){
+                process.destroy();
+                process = null;
+            }
+        }
+        
+        /**
+         * Sends a request and reads its response. The request is written by 
+         * another task while the response is read, as a worker may answer 
+         * while it is still reading the request (both pipes would fill up 
+         * otherwise)
+         */
+        private double[][] exchange(final BufferedWriter input, BufferedReader output, 
+                                    final String request, int numberOfLines) throws IOException {
+            Future<Void> writing = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    input.write(request);
+                    input.flush();
+                    return null;
+                }
+            });
+            double[][] values = readResponse(output, numberOfLines);
+            try{
+                writing.get();
+            }
+            catch(ExecutionException e){
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : 
+                        new IOException(e.getCause());
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing the request");
+            }
+            return values;
+        }
+        
+        /**
+         * Reads the response to a request (if the request fails, the worker 
+         * is killed, so a task still writing the request fails too)
+         */
+        private double[][] readResponse(BufferedReader output, int numberOfLines) throws IOException {
+            int numberOfValues = numberOfObjectives + numberOfConstraints;
+            double[][] values = new double[numberOfLines][numberOfValues];
+            for (int p = 0; p < numberOfLines; p++) {
+                String line = output.readLine();
+                if(line == null){
+                    throw new IOException("The worker exited");
+                }
+                if(line.startsWith("ERROR")){
+                    throw new IOException(line);
+                }
+                String[] fields = line.trim().split("\\s+");
+                if(fields.length != numberOfValues){
+                    throw new IOException("Expected " + numberOfValues + " values, got: " + line);
+                }
+                for (int i = 0; i < numberOfValues; i++) {
+                    values[p][i] = Double.parseDouble(fields[i]);
+                }
+            }
+            return values;
+        }
+    }
+    
+    private String formatRequest(List<Solution> solutions) throws JMException {
+        StringBuilder request = new StringBuilder();
+        request.append("EVAL ").append(solutions.size()).append('\n');
+        for (Solution solution : solutions) {
+            XReal variables = new XReal(solution);
+            for (int i = 0; i < variables.getNumberOfDecisionVariables(); i++) {
+                if(i > 0){
+                    request.append(' ');
+                }
+                request.append(variables.getValue(i));
+            }
+            request.append('\n');
+        }
+        return request.toString();
+    }
+    
+    private void setValues(List<Solution> solutions, double[][] values) {
+        for (int p = 0; p < solutions.size(); p++) {
+            Solution solution = solutions.get(p);
+            for (int i = 0; i < numberOfObjectives; i++) {
+                solution.setObjective(i, values[p][i]);
+            }
+            double overallConstraintViolation = 0;
+            int numberOfViolatedConstraints = 0;
+            for (int j = numberOfObjectives; j < values[p].length; j++) {
+                if(values[p][j] < 0){
+                    overallConstraintViolation += values[p][j];
+                    numberOfViolatedConstraints++;
+                }
+            }
+            solution.setOverallConstraintViolation(overallConstraintViolation);
+            solution.setNumberOfViolatedConstraint(numberOfViolatedConstraints);
+        }
+    }
+}